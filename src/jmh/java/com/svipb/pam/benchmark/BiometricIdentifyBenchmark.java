@@ -0,0 +1,88 @@
+package com.svipb.pam.benchmark;
+
+import com.svipb.pam.index.BiometricIndex;
+import com.svipb.pam.index.CredentialType;
+import com.svipb.pam.index.VectorMatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1:N identification latency of {@link BiometricIndex} with 128-dimensional templates,
+ * exact scan against the HNSW graph. Probes are enrolled templates plus sensor noise. The
+ * setup prints how often HNSW returned the same user as the exact scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BiometricIdentifyBenchmark {
+
+    private static final int DIMENSION = 128;
+    private static final int PROBES = 1024;
+
+    @Param({"10000", "100000"})
+    public int templates;
+
+    @Param({"flat", "hnsw"})
+    public String index;
+
+    @Param({"128"})
+    public int efSearch;
+
+    private BiometricIndex biometricIndex;
+    private float[][] probes;
+
+    @Setup(Level.Trial)
+    public void enroll() {
+        int threshold = index.equals("hnsw") ? 1 : Integer.MAX_VALUE;
+        biometricIndex = new BiometricIndex(DIMENSION, threshold, 16, 100, efSearch);
+        BiometricIndex exact = new BiometricIndex(DIMENSION, Integer.MAX_VALUE, 16, 100, 64);
+        Random random = new Random(7);
+        float[][] enrolled = new float[templates][];
+        for (int userId = 0; userId < templates; userId++) {
+            enrolled[userId] = biometricIndex.unitVector(gaussian(random, 1));
+            biometricIndex.enroll(CredentialType.FACEID, userId + 1, enrolled[userId]);
+            exact.enroll(CredentialType.FACEID, userId + 1, enrolled[userId]);
+        }
+        long start = System.nanoTime();
+        biometricIndex.loadComplete();
+        exact.loadComplete();
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+
+        probes = new float[PROBES][];
+        int agree = 0;
+        for (int i = 0; i < PROBES; i++) {
+            float[] noise = gaussian(random, 0.05f);
+            float[] template = enrolled[random.nextInt(templates)];
+            for (int d = 0; d < DIMENSION; d++) {
+                noise[d] += template[d];
+            }
+            probes[i] = biometricIndex.unitVector(noise);
+            if (biometricIndex.identify(CredentialType.FACEID, probes[i]).map(VectorMatch::userId)
+                    .equals(exact.identify(CredentialType.FACEID, probes[i]).map(VectorMatch::userId))) {
+                agree++;
+            }
+        }
+        System.out.printf("%n%s templates=%d efSearch=%d build=%d ms recall@1=%.4f%n", index, templates, efSearch, buildMs,
+                agree / (double) PROBES);
+    }
+
+    @Benchmark
+    public Optional<VectorMatch> identify() {
+        return biometricIndex.identify(CredentialType.FACEID, probes[ThreadLocalRandom.current().nextInt(PROBES)]);
+    }
+
+    private static float[] gaussian(Random random, float scale) {
+        float[] vector = new float[DIMENSION];
+        for (int d = 0; d < DIMENSION; d++) {
+            vector[d] = (float) random.nextGaussian() * scale;
+        }
+        return vector;
+    }
+}
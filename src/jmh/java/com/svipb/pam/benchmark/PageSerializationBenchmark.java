@@ -0,0 +1,86 @@
+package com.svipb.pam.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.svipb.pam.dto.UserSummary;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.index.AccessCredential;
+import com.svipb.pam.pagination.PagedResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of listing and verification bodies: the {@code PagedResponse<UserSummary>} the
+ * endpoints return now against the {@code Page<User>} they used to return, in every wire format
+ * clients can negotiate, with an {@link ObjectMapper} configured the way Spring MVC builds its own.
+ * Encoded sizes are printed once per trial, since JMH only measures time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private Page<User> page;
+    private PagedResponse<UserSummary> summaries;
+    private AccessCredential credential;
+
+    @Setup(Level.Trial)
+    public void buildPage() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        List<User> content = new ArrayList<>(pageSize);
+        for (int i = 1; i <= pageSize; i++) {
+            User user = SeededDatabase.user(i);
+            user.setId(i);
+            content.add(user);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 1_000_000);
+        summaries = PagedResponse.of(page.map(UserSummary::of));
+        credential = AccessCredential.of(content.get(0));
+
+        System.out.printf("%n%s bytes: page=%d summaries=%d credential=%d%n", format,
+                writePage().length, writePagedSummaries().length, writeCredential().length);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] writePagedSummaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+
+    // One /access/verify response body
+    @Benchmark
+    public byte[] writeCredential() throws Exception {
+        return objectMapper.writeValueAsBytes(credential);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+    }
+}
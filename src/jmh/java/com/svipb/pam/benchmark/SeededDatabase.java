@@ -0,0 +1,71 @@
+package com.svipb.pam.benchmark;
+
+import com.svipb.pam.PortAccessManagementApplication;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.index.UserIndexInitializer;
+import com.svipb.pam.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without a web server against an in-memory H2 database holding
+ * {@code users} generated rows, then rebuilds the in-memory indexes from them. Rows are
+ * deterministic, so every run and every fork sees the same roster.
+ */
+final class SeededDatabase {
+
+    static final String[] FIRST_NAMES = {
+            "Adi", "Budi", "Citra", "Dewi", "Eka", "Fajar", "Gita", "Hadi", "Indah", "Joko",
+            "Kartika", "Lestari", "Made", "Nur", "Putri", "Rizki", "Sari", "Tono", "Wati", "Yusuf"};
+    static final String[] LAST_NAMES = {
+            "Santoso", "Wijaya", "Pratama", "Saputra", "Hidayat", "Kusuma", "Nugroho", "Siregar",
+            "Simanjuntak", "Halim", "Gunawan", "Setiawan", "Rahman", "Susanto", "Lubis", "Tanjung"};
+    static final String[] STATUSES = {"staff", "visitor", "contractor", "security"};
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private SeededDatabase() {
+    }
+
+    static ConfigurableApplicationContext start(int users) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PortAccessManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                // Same embedded H2 setup as the tests; each JMH fork gets its own database
+                .profiles("test")
+                .run("--logging.level.root=WARN");
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<User> chunk = new ArrayList<>(SEED_CHUNK);
+        for (int i = 1; i <= users; i++) {
+            chunk.add(user(i));
+            if (chunk.size() == SEED_CHUNK || i == users) {
+                userRepository.batchInsert(chunk);
+                chunk.clear();
+            }
+        }
+        // Rows went in through JDBC, so replay them into the indexes the way startup would
+        context.getBean(UserIndexInitializer.class).afterSingletonsInstantiated();
+        return context;
+    }
+
+    static User user(int i) {
+        User user = new User();
+        user.setName(name(i));
+        user.setEmail("user" + i + "@pam.id");
+        user.setStatus(STATUSES[i % STATUSES.length]);
+        user.setGender(i % 2 == 0 ? "Laki-laki" : "Perempuan");
+        user.setPhone(i);
+        user.setRfid(i);
+        user.setFaceid(i);
+        user.setFingerid(i);
+        return user;
+    }
+
+    static String name(int i) {
+        return FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+}
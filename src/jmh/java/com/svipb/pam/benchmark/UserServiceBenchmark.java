@@ -0,0 +1,102 @@
+package com.svipb.pam.benchmark;
+
+import com.svipb.pam.dto.UserSummary;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.pagination.CursorPage;
+import com.svipb.pam.pagination.PagedResponse;
+import com.svipb.pam.pagination.SeekCursor;
+import com.svipb.pam.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService} read paths and the add-time duplicate check against a seeded
+ * embedded database. Page numbers, cursors and search terms are drawn at random per call
+ * so deep pages are measured alongside the first ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String[] SEARCH_TERMS = {"wati", "santoso", "dewi wij", "pra", "ri", "sari kusuma"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private User candidate;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = SeededDatabase.start(users);
+        userService = context.getBean(UserService.class);
+        // Collides with nothing, so all four uniqueness lookups run to completion
+        candidate = SeededDatabase.user(users + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    @Benchmark
+    public User checkDuplicateKeysForAdd() {
+        userService.checkDuplicateKeysForAdd(candidate);
+        return candidate;
+    }
+
+    @Benchmark
+    public PagedResponse<UserSummary> searchUserByName() {
+        String term = SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)];
+        return userService.searchUserByName(term, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PagedResponse<UserSummary> filterStatus() {
+        String status = SeededDatabase.STATUSES[ThreadLocalRandom.current().nextInt(SeededDatabase.STATUSES.length)];
+        int pages = users / SeededDatabase.STATUSES.length / PAGE_SIZE;
+        return userService.filterStatus(status, PageRequest.of(randomPage(pages), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public PagedResponse<UserSummary> getAllUsersWithPagination() {
+        return userService.getAllUsersWithPagination(randomPage(users / PAGE_SIZE), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PagedResponse<UserSummary> sortUsersByNameAscending() {
+        return userService.sortUsersByNameAscending(randomPage(users / PAGE_SIZE), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PagedResponse<UserSummary> sortUsersByNameDescending() {
+        return userService.sortUsersByNameDescending(randomPage(users / PAGE_SIZE), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<UserSummary> seekAllUsers() {
+        int afterId = ThreadLocalRandom.current().nextInt(users);
+        return userService.seekAllUsers(SeekCursor.afterId(afterId).encode(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<UserSummary> seekUsersByName() {
+        int after = 1 + ThreadLocalRandom.current().nextInt(users);
+        String cursor = SeekCursor.afterName(SeededDatabase.name(after), after).encode();
+        return userService.seekUsersByName(cursor, PAGE_SIZE, true);
+    }
+
+    private static int randomPage(int pages) {
+        return ThreadLocalRandom.current().nextInt(Math.max(pages, 1));
+    }
+}
@@ -0,0 +1,42 @@
+package com.svipb.pam.config;
+
+import com.svipb.pam.security.GateTokenFilter;
+import com.svipb.pam.security.JwtAuthenticationFilter;
+import com.svipb.pam.security.JwtService;
+import com.svipb.pam.service.AdminService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts {@link JwtAuthenticationFilter} in front of the admin and user APIs and
+ * {@link GateTokenFilter} in front of the credential allow-list downloads. {@code /auth}, the
+ * rest of {@code /access} (gate traffic) and {@code /actuator} stay open. Set
+ * {@code pam.jwt.enabled=false} to run without authentication.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pam.jwt.enabled", havingValue = "true", matchIfMissing = true)
+public class JwtAuthConfig {
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilter(JwtService jwtService,
+                                                                                  AdminService adminService) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new JwtAuthenticationFilter(jwtService, adminService));
+        registration.addUrlPatterns("/admin/*", "/users/*");
+        // After the request observation filter, so rejected requests still show up in metrics
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<GateTokenFilter> gateTokenFilter(@Value("${pam.gate.token:}") String gateToken) {
+        FilterRegistrationBean<GateTokenFilter> registration = new FilterRegistrationBean<>(new GateTokenFilter(gateToken));
+        registration.addUrlPatterns("/access/snapshot", "/access/delta");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,33 @@
+package com.svipb.pam.config;
+
+import com.svipb.pam.metrics.SqlStatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Hooks {@link SqlStatementCounter} into Hibernate. An inspector already configured through
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} is kept and
+ * called after the counter.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new SqlStatementCounter(configuredInspector(properties.get(AvailableSettings.STATEMENT_INSPECTOR))));
+    }
+
+    private static StatementInspector configuredInspector(Object setting) {
+        if (setting == null || setting instanceof StatementInspector) {
+            return (StatementInspector) setting;
+        }
+        Class<?> type = setting instanceof Class<?> cls ? cls : ClassUtils.resolveClassName(setting.toString(), null);
+        return BeanUtils.instantiateClass(type, StatementInspector.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.svipb.pam.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read/write split, active only when {@code pam.datasource.replica.url} is set. Writes use
+ * the pool configured under {@code spring.datasource}; transactions marked
+ * {@code readOnly = true} use the replica pool under {@code pam.datasource.replica}. Without
+ * a replica the auto-configured single DataSource is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "pam.datasource.replica", name = "url")
+public class ReadWriteDataSourceConfig {
+
+    private static final String REPLICA_PREFIX = "pam.datasource.replica";
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryProperties, Environment environment) {
+        return pool(primaryProperties, Binder.get(environment), "spring.datasource.hikari", "pam-primary");
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties replicaProperties = binder.bind(REPLICA_PREFIX, DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("Missing " + REPLICA_PREFIX + " settings"));
+        return pool(replicaProperties, binder, REPLICA_PREFIX + ".hikari", "pam-replica");
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        // Defer picking a target until the first statement, when the read-only flag is known
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String hikariPrefix, String poolName) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(hikariPrefix, Bindable.ofInstance(dataSource));
+        if (dataSource.getPoolName() == null) {
+            dataSource.setPoolName(poolName);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,95 @@
+package com.svipb.pam.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Brings the unique keys on {@code users} in schemas created before they were named up to date.
+ * Those schemas carry generated names (such as {@code UK_...}) from the old column-level unique
+ * flags, and {@code ddl-auto=update} never renames them, so a violation would not name the column
+ * {@code UserService} maps to a 409. At startup, on MySQL and MariaDB, every other single-column
+ * unique key on email, rfid, faceid or fingerid is renamed to {@code user_<column>_key}, or
+ * dropped when that key already exists. A schema that is already up to date costs one metadata read.
+ */
+@Component
+public class UserUniqueKeyMigration implements SmartInitializingSingleton {
+
+    private static final Map<String, String> KEY_BY_COLUMN = Map.of(
+            "email", "user_email_key",
+            "rfid", "user_rfid_key",
+            "faceid", "user_faceid_key",
+            "fingerid", "user_fingerid_key");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Logger logger = LoggerFactory.getLogger(UserUniqueKeyMigration.class);
+
+    public UserUniqueKeyMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            // Outside a transaction, so the routing data source hands out the primary
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                migrate(connection);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            logger.error("Could not rename the legacy unique keys on users; duplicate users will be reported as "
+                    + "500 until they are renamed to user_<column>_key by hand", e);
+        }
+    }
+
+    private void migrate(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String product = metaData.getDatabaseProductName().toLowerCase(Locale.ROOT);
+        if (!product.contains("mysql") && !product.contains("mariadb")) {
+            // Other databases here are the embedded test ones, created from scratch with the named keys
+            return;
+        }
+        Map<String, List<String>> columnsByKey = new LinkedHashMap<>();
+        try (ResultSet keys = metaData.getIndexInfo(connection.getCatalog(), null, "users", true, false)) {
+            while (keys.next()) {
+                String key = keys.getString("INDEX_NAME");
+                String column = keys.getString("COLUMN_NAME");
+                if (key != null && column != null) {
+                    columnsByKey.computeIfAbsent(key, name -> new ArrayList<>()).add(column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        Set<String> existing = new HashSet<>();
+        columnsByKey.keySet().forEach(key -> existing.add(key.toLowerCase(Locale.ROOT)));
+
+        columnsByKey.forEach((key, columns) -> {
+            String wanted = columns.size() == 1 ? KEY_BY_COLUMN.get(columns.get(0)) : null;
+            if (wanted == null || wanted.equalsIgnoreCase(key)) {
+                return;
+            }
+            if (existing.add(wanted)) {
+                jdbcTemplate.execute("ALTER TABLE users RENAME INDEX `" + key + "` TO " + wanted);
+                logger.atInfo().addKeyValue("from", key).addKeyValue("to", wanted).log("Renamed unique key on users");
+            } else {
+                jdbcTemplate.execute("ALTER TABLE users DROP INDEX `" + key + "`");
+                logger.atInfo().addKeyValue("key", key).addKeyValue("replacedBy", wanted).log("Dropped duplicate unique key on users");
+            }
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.svipb.pam.controller;
+
+import com.svipb.pam.dto.AccessDecision;
+import com.svipb.pam.dto.AccessVerdict;
+import com.svipb.pam.dto.BiometricMatch;
+import com.svipb.pam.dto.BiometricProbe;
+import com.svipb.pam.index.CredentialDelta;
+import com.svipb.pam.index.CredentialSnapshot;
+import com.svipb.pam.index.CredentialSnapshotCodec;
+import com.svipb.pam.index.CredentialType;
+import com.svipb.pam.index.Direction;
+import com.svipb.pam.service.AccessService;
+import com.svipb.pam.service.BiometricService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/access")
+public class AccessController {
+
+    private static final String EPOCH_HEADER = "X-Credential-Epoch";
+    private static final String VERSION_HEADER = "X-Credential-Version";
+    private static final String ACCESS_DENIED = "Akses ditolak untuk port ini pada waktu ini.";
+    private static final String PASSBACK_DENIED = "Anti-passback: user sudah tercatat di dalam area ini.";
+
+    private final AccessService accessService;
+    private final BiometricService biometricService;
+
+    public AccessController(@Autowired AccessService accessService, @Autowired BiometricService biometricService) {
+        this.accessService = accessService;
+        this.biometricService = biometricService;
+    }
+
+    // Verify a scanned RFID/FaceID/FingerID at a port; 403 when the access rules or anti-passback deny it
+    @GetMapping("/verify")
+    public ResponseEntity<Object> verify(
+            @RequestParam(name = "type") String type,
+            @RequestParam(name = "value") int value,
+            @RequestParam(name = "port", required = false) String port,
+            @RequestParam(name = "direction", required = false) String direction) {
+
+        CredentialType credentialType;
+        Direction scanDirection;
+        try {
+            credentialType = CredentialType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>("Tipe kredensial tidak dikenal: " + type, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            scanDirection = direction(direction);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        Optional<AccessDecision> decision = accessService.verify(credentialType, value, port, scanDirection);
+        if (decision.isEmpty()) {
+            return new ResponseEntity<>("Kredensial tidak terdaftar.", HttpStatus.NOT_FOUND);
+        }
+        if (!decision.get().granted()) {
+            return denied(decision.get().verdict());
+        }
+        return ResponseEntity.ok(decision.get().credential());
+    }
+
+    // Identify a face or fingerprint feature vector against every enrolled template
+    @PostMapping("/identify")
+    public ResponseEntity<Object> identify(
+            @RequestBody BiometricProbe probe,
+            @RequestParam(name = "port", required = false) String port,
+            @RequestParam(name = "direction", required = false) String direction) {
+        try {
+            CredentialType type = biometricService.modality(probe.type());
+            Optional<BiometricMatch> match = accessService.identify(type, probe.features(), port, direction(direction));
+            if (match.isEmpty()) {
+                return new ResponseEntity<>("Biometrik tidak dikenali.", HttpStatus.NOT_FOUND);
+            }
+            if (!match.get().granted()) {
+                return denied(match.get().verdict());
+            }
+            return ResponseEntity.ok(match.get());
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Live occupancy counters of every port
+    @GetMapping("/occupancy")
+    public ResponseEntity<Object> getOccupancy() {
+        return ResponseEntity.ok(accessService.getOccupancy());
+    }
+
+    // Who is inside a port's zone right now
+    @GetMapping("/occupancy/{port}")
+    public ResponseEntity<Object> getOccupants(@PathVariable String port) {
+        if (accessService.getZoneOccupancy(port).isEmpty()) {
+            return new ResponseEntity<>("Belum ada pemindaian masuk/keluar di port ini.", HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(accessService.getOccupants(port));
+    }
+
+    // Binary snapshot of every credential, for gate controllers that keep a local allow-list
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> getSnapshot() {
+        CredentialSnapshot snapshot = accessService.getSnapshot();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CredentialSnapshotCodec.CONTENT_TYPE))
+                .header(EPOCH_HEADER, Long.toString(snapshot.epoch()))
+                .header(VERSION_HEADER, Long.toString(snapshot.version()))
+                .body(CredentialSnapshotCodec.encode(snapshot));
+    }
+
+    // Binary delta since a version; 410 tells the controller to take a fresh snapshot
+    @GetMapping("/delta")
+    public ResponseEntity<Object> getDelta(
+            @RequestParam(name = "since") long since,
+            @RequestParam(name = "epoch") long epoch) {
+
+        Optional<CredentialDelta> delta = accessService.getDelta(epoch, since);
+        if (delta.isEmpty()) {
+            return new ResponseEntity<>("Versi tidak tersedia, ambil snapshot baru.", HttpStatus.GONE);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CredentialSnapshotCodec.CONTENT_TYPE))
+                .header(EPOCH_HEADER, Long.toString(delta.get().epoch()))
+                .header(VERSION_HEADER, Long.toString(delta.get().toVersion()))
+                .body(CredentialSnapshotCodec.encode(delta.get()));
+    }
+
+    // Access event pipeline counters: backlog, drops and flushed batches
+    @GetMapping("/events/metrics")
+    public ResponseEntity<Object> getEventMetrics() {
+        return ResponseEntity.ok(accessService.getEventMetrics());
+    }
+
+    // "in"/"out"; gates without a direction sensor leave it out
+    private static Direction direction(String direction) {
+        if (direction == null || direction.isBlank()) {
+            return null;
+        }
+        try {
+            return Direction.valueOf(direction.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Arah tidak dikenal: " + direction);
+        }
+    }
+
+    private static ResponseEntity<Object> denied(AccessVerdict verdict) {
+        String message = verdict == AccessVerdict.PASSBACK_DENIED ? PASSBACK_DENIED : ACCESS_DENIED;
+        return new ResponseEntity<>(message, HttpStatus.FORBIDDEN);
+    }
+}
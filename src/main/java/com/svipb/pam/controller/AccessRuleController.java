@@ -0,0 +1,75 @@
+package com.svipb.pam.controller;
+
+import com.svipb.pam.entity.AccessRule;
+import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.service.AccessRuleService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/admin/rules")
+public class AccessRuleController {
+
+    private final AccessRuleService accessRuleService;
+
+    public AccessRuleController(@Autowired AccessRuleService accessRuleService) {
+        this.accessRuleService = accessRuleService;
+    }
+
+    // List every access rule
+    @GetMapping
+    public ResponseEntity<Object> getRules() {
+        return ResponseEntity.ok(accessRuleService.getRules());
+    }
+
+    // Add an access rule; gates apply it as soon as it is committed
+    @PostMapping
+    public ResponseEntity<Object> addRule(@Valid @RequestBody AccessRule rule, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return new ResponseEntity<>("Validation errors: " + validationMessage(bindingResult), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(accessRuleService.addRule(rule), HttpStatus.CREATED);
+    }
+
+    // Replace an access rule (body carries the version it was read at)
+    @PutMapping("/{id}")
+    public ResponseEntity<Object> updateRule(@PathVariable long id, @Valid @RequestBody AccessRule rule,
+                                             BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return new ResponseEntity<>("Validation errors: " + validationMessage(bindingResult), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return ResponseEntity.ok(accessRuleService.updateRule(id, rule));
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        }
+    }
+
+    // Delete an access rule
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Object> deleteRule(@PathVariable long id) {
+        try {
+            accessRuleService.deleteRule(id);
+            return ResponseEntity.ok("Aturan akses dihapus.");
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private static String validationMessage(BindingResult bindingResult) {
+        return bindingResult.getAllErrors()
+                .stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -2,10 +2,14 @@ package com.svipb.pam.controller;
 
 import com.svipb.pam.entity.Admin;
 import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.security.AuthenticatedAdmin;
+import com.svipb.pam.security.JwtAuthenticationFilter;
 import com.svipb.pam.service.AdminService;
+import com.svipb.pam.service.CacheService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,9 +25,11 @@ import java.util.stream.Collectors;
 public class AdminController {
 
     private final AdminService adminService;
+    private final CacheService cacheService;
 
-    public AdminController(@Autowired AdminService adminService) {
+    public AdminController(@Autowired AdminService adminService, @Autowired CacheService cacheService) {
         this.adminService = adminService;
+        this.cacheService = cacheService;
     }
 
     // Retrieve Admin Data
@@ -48,9 +54,11 @@ public class AdminController {
         }
     }
 
-    // Add Admin Data
+    // Add Admin Data; without a verified token only the very first admin can be added
     @PostMapping("/add")
-    public ResponseEntity<Object> addAdminData(@Valid @RequestBody Admin admin, BindingResult bindingResult) {
+    public ResponseEntity<Object> addAdminData(@Valid @RequestBody Admin admin, BindingResult bindingResult,
+                                               @RequestAttribute(name = JwtAuthenticationFilter.ADMIN_ATTRIBUTE, required = false)
+                                               AuthenticatedAdmin caller) {
         if (bindingResult.hasErrors()) {
             // Handle validation errors
             String validationErrorMessage = bindingResult.getAllErrors()
@@ -61,6 +69,9 @@ public class AdminController {
             return new ResponseEntity<>("Validation errors: " + validationErrorMessage, HttpStatus.BAD_REQUEST);
         }
 
+        if (caller == null) {
+            return handleAddAdminDataResponse(() -> adminService.addFirstAdmin(admin));
+        }
         return handleAddAdminDataResponse(() -> adminService.addAdminData(admin));
     }
 
@@ -68,6 +79,8 @@ public class AdminController {
         try {
             Admin addedAdmin = action.get();
             return new ResponseEntity<>("Admin data added successfully", HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
         } catch (Exception e) {
             return new ResponseEntity<>("Error adding admin data: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -92,6 +105,9 @@ public class AdminController {
         } catch (ResourceNotFoundException e) {
             // Handle the exception and return an appropriate response
             return new ResponseEntity<>("Admin not found. " + e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (OptimisticLockingFailureException e) {
+            // The submitted version is stale: another admin saved in between
+            return new ResponseEntity<>("Admin sudah diubah oleh admin lain, muat ulang data terlebih dahulu", HttpStatus.CONFLICT);
         } catch (Exception e) {
             // Handle other exceptions and return an appropriate response
             return new ResponseEntity<>("Failed to update admin: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -113,4 +129,10 @@ public class AdminController {
             return new ResponseEntity<>("Kesalahan ketika menghapus admin. " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    // Second-level and query cache hit/miss statistics
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Object> getCacheStatistics() {
+        return ResponseEntity.ok(cacheService.getStatistics());
+    }
+}
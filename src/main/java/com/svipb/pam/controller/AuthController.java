@@ -0,0 +1,48 @@
+package com.svipb.pam.controller;
+
+import com.svipb.pam.dto.LoginRequest;
+import com.svipb.pam.dto.LoginResponse;
+import com.svipb.pam.security.JwtAuthenticationFilter;
+import com.svipb.pam.security.JwtService;
+import com.svipb.pam.service.AdminService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/auth")
+public class AuthController {
+
+    private final AdminService adminService;
+    private final JwtService jwtService;
+
+    public AuthController(@Autowired AdminService adminService, @Autowired JwtService jwtService) {
+        this.adminService = adminService;
+        this.jwtService = jwtService;
+    }
+
+    // Check the admin's credentials once and hand out a bearer token
+    @PostMapping("/login")
+    public ResponseEntity<Object> login(@RequestBody LoginRequest request) {
+        return adminService.authenticate(request.username(), request.password())
+                .<ResponseEntity<Object>>map(admin -> {
+                    JwtService.IssuedToken issued = jwtService.issue(admin);
+                    return ResponseEntity.ok(LoginResponse.bearer(issued.token(), issued.expiresAt()));
+                })
+                .orElseGet(() -> new ResponseEntity<>("Username atau password salah.", HttpStatus.UNAUTHORIZED));
+    }
+
+    // Revoke the caller's token for the rest of its lifetime
+    @PostMapping("/logout")
+    public ResponseEntity<Object> logout(@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        boolean revoked = JwtAuthenticationFilter.bearerToken(authorization)
+                .map(jwtService::revoke)
+                .orElse(false);
+        if (!revoked) {
+            return new ResponseEntity<>("Token tidak valid atau kedaluwarsa.", HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity.ok("Berhasil logout");
+    }
+}
@@ -0,0 +1,45 @@
+package com.svipb.pam.controller;
+
+import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.service.BiometricService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/users")
+public class BiometricController {
+
+    private final BiometricService biometricService;
+
+    public BiometricController(@Autowired BiometricService biometricService) {
+        this.biometricService = biometricService;
+    }
+
+    // Enroll or replace a User's face/fingerprint template (body: raw feature vector)
+    @PutMapping("/{id}/biometrics/{type}")
+    public ResponseEntity<Object> enroll(@PathVariable int id, @PathVariable String type, @RequestBody float[] features) {
+        try {
+            biometricService.enroll(id, biometricService.modality(type), features);
+            return ResponseEntity.ok("Template biometrik tersimpan.");
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Remove a User's face/fingerprint template
+    @DeleteMapping("/{id}/biometrics/{type}")
+    public ResponseEntity<Object> removeTemplate(@PathVariable int id, @PathVariable String type) {
+        try {
+            biometricService.removeTemplate(id, biometricService.modality(type));
+            return ResponseEntity.ok("Template biometrik dihapus.");
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+}
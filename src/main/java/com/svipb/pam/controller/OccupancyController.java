@@ -0,0 +1,30 @@
+package com.svipb.pam.controller;
+
+import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.service.AccessService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/occupancy")
+public class OccupancyController {
+
+    private final AccessService accessService;
+
+    public OccupancyController(@Autowired AccessService accessService) {
+        this.accessService = accessService;
+    }
+
+    // Mark a User as outside a port's zone so anti-passback lets them in again
+    @DeleteMapping("/{port}/{userId}")
+    public ResponseEntity<Object> releaseOccupant(@PathVariable String port, @PathVariable int userId) {
+        try {
+            accessService.releaseOccupant(port, userId);
+            return ResponseEntity.ok("User dilepas dari area " + port + ".");
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+}
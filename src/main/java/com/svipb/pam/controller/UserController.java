@@ -1,20 +1,46 @@
 package com.svipb.pam.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.svipb.pam.dto.BulkActionReport;
+import com.svipb.pam.dto.BulkImportReport;
+import com.svipb.pam.dto.UserExportFormat;
+import com.svipb.pam.dto.UserPatch;
+import com.svipb.pam.dto.UserSelection;
+import com.svipb.pam.dto.UserSummary;
 import com.svipb.pam.entity.User;
+import com.svipb.pam.event.RosterEventStream;
 import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.index.RosterVersion;
+import com.svipb.pam.pagination.CursorPage;
+import com.svipb.pam.pagination.PagedResponse;
 import com.svipb.pam.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -23,35 +49,128 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
-    private Process logger;
+    private final ObjectMapper objectMapper;
+    private final RosterVersion rosterVersion;
+    private final RosterEventStream rosterEventStream;
+    private final Logger logger = LoggerFactory.getLogger(UserController.class);
 
-    public UserController(@Autowired UserService userService) {
+    @Value("${pam.users.bulk.max-rows:50000}")
+    private int bulkMaxRows;
+
+    public UserController(@Autowired UserService userService, @Autowired ObjectMapper objectMapper,
+                          @Autowired RosterVersion rosterVersion, @Autowired RosterEventStream rosterEventStream) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.rosterVersion = rosterVersion;
+        this.rosterEventStream = rosterEventStream;
     }
 
     // Retrieve all Users
     @GetMapping("/all")
     public ResponseEntity<Object> getAllUsersWithPagination(
             @RequestHeader(name = "page", defaultValue = "0") int page,
-            @RequestHeader(name = "size", defaultValue = "10") int size) {
+            @RequestHeader(name = "size", defaultValue = "10") int size,
+            WebRequest webRequest, HttpServletResponse response) {
 
+        // Paging travels in headers on one URL, so caches must key on them too
+        response.setHeader(HttpHeaders.VARY, "page, size, Accept");
+        // Nothing written since the client's copy: 304 without touching the database
+        if (webRequest.checkNotModified(rosterVersion.etag("all", page, size, webRequest.getHeader(HttpHeaders.ACCEPT)))) {
+            return null;
+        }
         return handleGetAllUsersResponse(() -> userService.getAllUsersWithPagination(page, size));
     }
 
     // Handle the response for getAllUsersWithPagination
-    private ResponseEntity<Object> handleGetAllUsersResponse(Supplier<Page<User>> action) {
+    private ResponseEntity<Object> handleGetAllUsersResponse(Supplier<PagedResponse<UserSummary>> action) {
+        try {
+            PagedResponse<UserSummary> usersPage = action.get();
+            if (usersPage.getContent().isEmpty()) {
+                return new ResponseEntity<>("Tidak ditemukan user.", HttpStatus.NOT_FOUND);
+            } else {
+                return new ResponseEntity<>(usersPage, HttpStatus.OK);
+            }
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Stream user changes as Server-Sent Events; reconnecting clients resume from Last-Event-ID
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return rosterEventStream.subscribe(lastEventId);
+    }
+
+    // Retrieve one User with every field
+    @GetMapping("/{id}")
+    public ResponseEntity<Object> getUser(@PathVariable int id) {
+        try {
+            return ResponseEntity.ok(userService.getUser(id));
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Retrieve all Users with keyset pagination
+    @GetMapping("/all/seek")
+    public ResponseEntity<Object> seekAllUsers(
+            @RequestHeader(name = "cursor", required = false) String cursor,
+            @RequestHeader(name = "size", defaultValue = "10") int size) {
+
+        return handleSeekUsersResponse(() -> userService.seekAllUsers(cursor, size));
+    }
+
+    // Sort Users by Name in Ascending Order with keyset pagination
+    @GetMapping("/sortByNameAscending/seek")
+    public ResponseEntity<Object> seekUsersByNameAscending(
+            @RequestHeader(name = "cursor", required = false) String cursor,
+            @RequestHeader(name = "size", defaultValue = "10") int size) {
+
+        return handleSeekUsersResponse(() -> userService.seekUsersByName(cursor, size, true));
+    }
+
+    // Sort Users by Name in Descending Order with keyset pagination
+    @GetMapping("/sortByNameDescending/seek")
+    public ResponseEntity<Object> seekUsersByNameDescending(
+            @RequestHeader(name = "cursor", required = false) String cursor,
+            @RequestHeader(name = "size", defaultValue = "10") int size) {
+
+        return handleSeekUsersResponse(() -> userService.seekUsersByName(cursor, size, false));
+    }
+
+    // Handle the response for the keyset listings
+    private ResponseEntity<Object> handleSeekUsersResponse(Supplier<CursorPage<UserSummary>> action) {
         try {
-            Page<User> usersPage = action.get();
-            if (usersPage.isEmpty()) {
+            CursorPage<UserSummary> usersPage = action.get();
+            if (usersPage.getContent().isEmpty()) {
                 return new ResponseEntity<>("Tidak ditemukan user.", HttpStatus.NOT_FOUND);
             } else {
                 return new ResponseEntity<>(usersPage, HttpStatus.OK);
             }
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>("Error: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // Export all Users as NDJSON or CSV without paging
+    @GetMapping("/export")
+    public ResponseEntity<Object> exportUsers(@RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        UserExportFormat exportFormat;
+        try {
+            exportFormat = UserExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>("Format export tidak dikenal: " + format, HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = out -> userService.exportUsers(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header("Content-Disposition", "attachment; filename=users." + exportFormat.name().toLowerCase(Locale.ROOT))
+                .body(body);
+    }
+
     // Add User
     @PostMapping("/add")
     public ResponseEntity<String> addUser(@Valid @RequestBody User user, BindingResult bindingResult) {
@@ -66,6 +185,8 @@ public class UserController {
             try {
                 String result = userService.addUser(user);
                 return new ResponseEntity<>(result, HttpStatus.OK);
+            } catch (DuplicateKeyException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
             } catch (Exception e) {
                 // Handle other exceptions and return an appropriate response
                 return new ResponseEntity<>("Failed to add user: " + "there's already a user with the same email", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -76,6 +197,80 @@ public class UserController {
 
 
 
+    // Bulk Import Users from a JSON array
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> importUsers(@RequestBody List<User> users) {
+        return handleImportUsersResponse(users);
+    }
+
+    // Bulk Import Users from newline-delimited JSON
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> importUsersNdjson(InputStream body) {
+        List<User> users = new ArrayList<>();
+        try (MappingIterator<User> rows = objectMapper.readerFor(User.class).readValues(body)) {
+            while (rows.hasNext()) {
+                users.add(rows.next());
+                if (users.size() > bulkMaxRows) {
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return new ResponseEntity<>("Format NDJSON tidak valid: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        return handleImportUsersResponse(users);
+    }
+
+    // Handle the response for importUsers
+    private ResponseEntity<Object> handleImportUsersResponse(List<User> users) {
+        if (users.isEmpty()) {
+            return new ResponseEntity<>("Tidak ada user untuk diimport.", HttpStatus.BAD_REQUEST);
+        }
+        if (users.size() > bulkMaxRows) {
+            return new ResponseEntity<>("Maksimal " + bulkMaxRows + " user per import.", HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        try {
+            BulkImportReport report = userService.importUsers(users);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent write took one of the keys between the duplicate check and the insert
+            return new ResponseEntity<>("Import dibatalkan karena konflik data, silakan ulangi: " + e.getMostSpecificCause().getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Bulk Delete Users by id list or status
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<Object> deleteUsers(@RequestBody UserSelection selection) {
+        return handleBulkActionResponse(selection, () -> userService.deleteUsers(selection));
+    }
+
+    // Bulk Deactivate Users by id list or status; their credentials stop working immediately
+    @PostMapping("/bulk/deactivate")
+    public ResponseEntity<Object> deactivateUsers(@RequestBody UserSelection selection) {
+        return handleBulkActionResponse(selection, () -> userService.setDeactivated(selection, true));
+    }
+
+    // Bulk Reactivate Users by id list or status
+    @PostMapping("/bulk/reactivate")
+    public ResponseEntity<Object> reactivateUsers(@RequestBody UserSelection selection) {
+        return handleBulkActionResponse(selection, () -> userService.setDeactivated(selection, false));
+    }
+
+    // Handle the response for bulk delete/deactivate
+    private ResponseEntity<Object> handleBulkActionResponse(UserSelection selection, Supplier<BulkActionReport> action) {
+        if (selection.ids() != null && selection.ids().size() > bulkMaxRows) {
+            return new ResponseEntity<>("Maksimal " + bulkMaxRows + " id per permintaan.", HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        try {
+            return ResponseEntity.ok(action.get());
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Error: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Update User
     @PutMapping("/update")
     public ResponseEntity<String> updateUser(@Valid @RequestBody User user, BindingResult bindingResult) throws ResourceNotFoundException {
@@ -104,6 +299,22 @@ public class UserController {
 
 
 
+    // Partially update a User; the body carries only the changed fields plus the version last read
+    @PatchMapping("/{id}")
+    public ResponseEntity<Object> patchUser(@PathVariable int id, @RequestBody UserPatch patch) {
+        try {
+            return ResponseEntity.ok(userService.patchUser(id, patch));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>("Validation errors: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ResourceNotFoundException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (DuplicateKeyException | OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Failed to update user: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Delete User
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<String> deleteUser(@PathVariable int id) {
@@ -122,15 +333,18 @@ public class UserController {
 
     // Search User by Part of Name
     @GetMapping("/search")
-    public ResponseEntity<Object> searchUserByName(@RequestHeader("name") String name) {
-        return handleSearchUserResponse(() -> userService.searchUserByName(name));
+    public ResponseEntity<Object> searchUserByName(
+            @RequestHeader("name") String name,
+            @RequestHeader(name = "page", defaultValue = "0") int page,
+            @RequestHeader(name = "size", defaultValue = "10") int size) {
+        return handleSearchUserResponse(() -> userService.searchUserByName(name, page, size));
     }
 
     // Handle the response for searchUserByName
-    private ResponseEntity<Object> handleSearchUserResponse(Supplier<List<User>> action) {
+    private ResponseEntity<Object> handleSearchUserResponse(Supplier<PagedResponse<UserSummary>> action) {
         try {
-            List<User> users = action.get();
-            if (users.isEmpty()) {
+            PagedResponse<UserSummary> users = action.get();
+            if (users.getContent().isEmpty()) {
                 return new ResponseEntity<>("Tidak ditemukan User dengan nama tersebut.", HttpStatus.NOT_FOUND);
             } else {
                 return new ResponseEntity<>(users, HttpStatus.OK);
@@ -145,27 +359,40 @@ public class UserController {
     public ResponseEntity<Object> filterStatus(
             @RequestHeader("status") String status,
             @RequestHeader(name = "page", defaultValue = "0") int page,
-            @RequestHeader(name = "size", defaultValue = "10") int size) {
+            @RequestHeader(name = "size", defaultValue = "10") int size,
+            WebRequest webRequest, HttpServletResponse response) {
 
+        response.setHeader(HttpHeaders.VARY, "status, page, size, Accept");
+        String etag = rosterVersion.etag("status", status.toLowerCase(Locale.ROOT), page, size,
+                webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         return handleFilterUsersByStatusResponse(() -> userService.filterStatus(status, PageRequest.of(page, size)), status);
     }
 
     // Handle the response for filterUsersByStatus
-    private ResponseEntity<Object> handleFilterUsersByStatusResponse(Supplier<Page<User>> action, String status) {
+    private ResponseEntity<Object> handleFilterUsersByStatusResponse(Supplier<PagedResponse<UserSummary>> action, String status) {
         try {
-            Page<User> usersPage = action.get();
-            if (usersPage.isEmpty()) {
-                System.out.println("No users found with status: " + status);
+            PagedResponse<UserSummary> usersPage = action.get();
+            if (usersPage.getContent().isEmpty()) {
+                logger.atDebug().addKeyValue("status", status).log("No users found with status");
                 return new ResponseEntity<>("No users found with status: " + status, HttpStatus.NOT_FOUND);
             } else {
                 return ResponseEntity.ok(usersPage);
             }
         } catch (Exception e) {
-            System.out.println("Error filtering users by status: " + e.getMessage());
+            logger.atWarn().addKeyValue("status", status).setCause(e).log("Error filtering users by status");
             return new ResponseEntity<>("Error filtering users by status: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // Count Users per status and gender
+    @GetMapping("/facets")
+    public ResponseEntity<Object> getUserFacets() {
+        return ResponseEntity.ok(userService.getUserFacets());
+    }
+
     // Sort Users by Name in Ascending Order
     @GetMapping("/sortByNameAscending")
     public ResponseEntity<Object> sortUsersByNameAscending(
@@ -176,10 +403,10 @@ public class UserController {
     }
 
     // Handle the response for sortUsersByNameAscending
-    private ResponseEntity<Object> handleSortUsersByNameAscendingResponse(Supplier<Page<User>> action) {
+    private ResponseEntity<Object> handleSortUsersByNameAscendingResponse(Supplier<PagedResponse<UserSummary>> action) {
         try {
-            Page<User> usersPage = action.get();
-            if (usersPage.isEmpty()) {
+            PagedResponse<UserSummary> usersPage = action.get();
+            if (usersPage.getContent().isEmpty()) {
                 return new ResponseEntity<>("No users found for sorting by name in ascending order", HttpStatus.NOT_FOUND);
             } else {
                 return ResponseEntity.ok(usersPage);
@@ -199,10 +426,10 @@ public class UserController {
     }
 
     // Handle the response for sortUsersByNameDescending
-    private ResponseEntity<Object> handleSortUsersByNameDescendingResponse(Supplier<Page<User>> action) {
+    private ResponseEntity<Object> handleSortUsersByNameDescendingResponse(Supplier<PagedResponse<UserSummary>> action) {
         try {
-            Page<User> usersPage = action.get();
-            if (usersPage.isEmpty()) {
+            PagedResponse<UserSummary> usersPage = action.get();
+            if (usersPage.getContent().isEmpty()) {
                 return new ResponseEntity<>("No users found for sorting by name in descending order", HttpStatus.NOT_FOUND);
             } else {
                 return ResponseEntity.ok(usersPage);
@@ -0,0 +1,11 @@
+package com.svipb.pam.dto;
+
+import com.svipb.pam.index.AccessCredential;
+
+// Result of /access/verify: the registered credential and whether the gate may open for it
+public record AccessDecision(AccessCredential credential, AccessVerdict verdict) {
+
+    public boolean granted() {
+        return verdict == AccessVerdict.GRANTED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.svipb.pam.dto;
+
+// Outcome for a registered credential: admitted, outside its access rules, or a second IN without an OUT
+public enum AccessVerdict {
+    GRANTED,
+    RULE_DENIED,
+    PASSBACK_DENIED
+}
@@ -0,0 +1,12 @@
+package com.svipb.pam.dto;
+
+import com.svipb.pam.index.AccessCredential;
+
+// Result of /access/identify: the recognised user, how close the probe was to the enrolled template and
+// whether the gate may open for that user
+public record BiometricMatch(AccessCredential credential, float similarity, AccessVerdict verdict) {
+
+    public boolean granted() {
+        return verdict == AccessVerdict.GRANTED;
+    }
+}
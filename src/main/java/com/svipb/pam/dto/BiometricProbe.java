@@ -0,0 +1,5 @@
+package com.svipb.pam.dto;
+
+// Feature vector from a face or fingerprint reader; type is FACEID or FINGERID
+public record BiometricProbe(String type, float[] features) {
+}
@@ -0,0 +1,9 @@
+package com.svipb.pam.dto;
+
+/**
+ * Outcome of a bulk delete/deactivate: {@code matched} users were targeted, {@code affected}
+ * rows actually changed (ids that did not exist or were already in the requested state are not
+ * counted).
+ */
+public record BulkActionReport(int matched, int affected) {
+}
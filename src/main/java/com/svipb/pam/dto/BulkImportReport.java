@@ -0,0 +1,11 @@
+package com.svipb.pam.dto;
+
+import java.util.List;
+
+public record BulkImportReport(int total, int created, int rejected, List<BulkImportResult> rows) {
+
+    public static BulkImportReport of(List<BulkImportResult> rows) {
+        int created = (int) rows.stream().filter(row -> row.status() == BulkImportResult.Status.CREATED).count();
+        return new BulkImportReport(rows.size(), created, rows.size() - created, rows);
+    }
+}
@@ -0,0 +1,11 @@
+package com.svipb.pam.dto;
+
+// Outcome of a single row in a bulk user import
+public record BulkImportResult(int row, String email, Status status, Integer id, String message) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+}
@@ -0,0 +1,11 @@
+package com.svipb.pam.dto;
+
+import java.util.Map;
+
+// Hibernate second-level and query cache counters since startup
+public record CacheStatistics(long queryCacheHits, long queryCacheMisses, long queryCachePuts,
+                              Map<String, Region> regions) {
+
+    public record Region(long hits, long misses, long puts, long entries) {
+    }
+}
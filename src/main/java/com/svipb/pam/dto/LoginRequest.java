@@ -0,0 +1,4 @@
+package com.svipb.pam.dto;
+
+public record LoginRequest(String username, String password) {
+}
@@ -0,0 +1,10 @@
+package com.svipb.pam.dto;
+
+import java.time.Instant;
+
+public record LoginResponse(String token, String tokenType, Instant expiresAt) {
+
+    public static LoginResponse bearer(String token, Instant expiresAt) {
+        return new LoginResponse(token, "Bearer", expiresAt);
+    }
+}
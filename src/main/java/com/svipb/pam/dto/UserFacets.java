@@ -0,0 +1,7 @@
+package com.svipb.pam.dto;
+
+import java.util.Map;
+
+// User counts per status and gender value, keyed by the lower-cased value
+public record UserFacets(long total, Map<String, Long> status, Map<String, Long> gender) {
+}
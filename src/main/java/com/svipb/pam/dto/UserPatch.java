@@ -0,0 +1,35 @@
+package com.svipb.pam.dto;
+
+import com.svipb.pam.entity.User;
+
+import java.time.Instant;
+
+/**
+ * Body of {@code PATCH /users/{id}}. Only non-null fields are written; {@code version} is the
+ * version the client last read and is required.
+ */
+public record UserPatch(String name, String email, String status, String gender,
+                        Integer phone, Integer rfid, Integer faceid, Integer fingerid,
+                        Instant validFrom, Instant validUntil, Long version) {
+
+    public boolean hasChanges() {
+        return name != null || email != null || status != null || gender != null
+                || phone != null || rfid != null || faceid != null || fingerid != null
+                || validFrom != null || validUntil != null;
+    }
+
+    // Copy the supplied fields onto the given user
+    public User applyTo(User user) {
+        if (name != null) user.setName(name);
+        if (email != null) user.setEmail(email);
+        if (status != null) user.setStatus(status);
+        if (gender != null) user.setGender(gender);
+        if (phone != null) user.setPhone(phone);
+        if (rfid != null) user.setRfid(rfid);
+        if (faceid != null) user.setFaceid(faceid);
+        if (fingerid != null) user.setFingerid(fingerid);
+        if (validFrom != null) user.setValidFrom(validFrom);
+        if (validUntil != null) user.setValidUntil(validUntil);
+        return user;
+    }
+}
@@ -0,0 +1,24 @@
+package com.svipb.pam.dto;
+
+import java.util.List;
+
+/**
+ * Target of a bulk user action: either explicit {@code ids} or every user with {@code status}
+ * (case-insensitive). Exactly one of the two must be given.
+ */
+public record UserSelection(List<Integer> ids, String status) {
+
+    public static UserSelection ofIds(List<Integer> ids) {
+        return new UserSelection(ids, null);
+    }
+
+    public static UserSelection ofStatus(String status) {
+        return new UserSelection(null, status);
+    }
+
+    public boolean isValid() {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        boolean hasStatus = status != null && !status.isBlank();
+        return hasIds != hasStatus;
+    }
+}
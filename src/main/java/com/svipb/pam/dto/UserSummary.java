@@ -0,0 +1,16 @@
+package com.svipb.pam.dto;
+
+import com.svipb.pam.entity.User;
+
+import java.time.Instant;
+
+// Row of a user listing, selected column-by-column so no managed entity is hydrated;
+// credentials stay out of listings and are only returned by GET /users/{id}
+public record UserSummary(int id, String name, String email, String status, String gender, int phone,
+                          boolean deactivated, Instant validUntil, long version) {
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getName(), user.getEmail(), user.getStatus(), user.getGender(),
+                user.getPhone(), user.isDeactivated(), user.getValidUntil(), user.getVersion());
+    }
+}
@@ -0,0 +1,35 @@
+package com.svipb.pam.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Append-only log of gate scans; rows are written in batches by AccessEventWriter
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "access_events", indexes = {
+        @Index(name = "idx_access_events_occurred_at", columnList = "occurred_at"),
+        @Index(name = "idx_access_events_user_id", columnList = "user_id, occurred_at")
+})
+public class AccessEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Column(name = "user_id")
+    private Integer userId;
+    @Column(name = "credential_type", nullable = false, length = 16)
+    private String credentialType;
+    private int credential;
+    private String port;
+    @Column(length = 3)
+    private String direction;
+    private boolean granted;
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,49 @@
+package com.svipb.pam.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Who may open which port and when. A null {@code port}, {@code status} or {@code userId}
+ * matches any value. The weekly window covers the {@code days} bitmask (bit 0 = Monday,
+ * 0 = every day) from {@code startMinute} to {@code endMinute} minutes after midnight; an end
+ * before the start runs past midnight, and equal values cover the whole day.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "access_rules")
+public class AccessRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    private String port;
+    private String status;
+    @Column(name = "user_id")
+    private Integer userId;
+    @Min(value = 0, message = "Hari harus bitmask 0-127")
+    @Max(value = 127, message = "Hari harus bitmask 0-127")
+    private int days;
+    @Min(value = 0, message = "Menit mulai harus 0-1440")
+    @Max(value = 1440, message = "Menit mulai harus 0-1440")
+    @Column(name = "start_minute")
+    private int startMinute;
+    @Min(value = 0, message = "Menit selesai harus 0-1440")
+    @Max(value = 1440, message = "Menit selesai harus 0-1440")
+    @Column(name = "end_minute")
+    private int endMinute = 1440;
+    @NotNull(message = "Efek aturan tidak boleh kosong")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RuleEffect effect;
+    private String description;
+    @Version
+    private long version;
+}
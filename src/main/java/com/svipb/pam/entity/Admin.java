@@ -1,16 +1,21 @@
 package com.svipb.pam.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "admin")
 public class Admin {
 
@@ -25,7 +30,11 @@ public class Admin {
     @NotEmpty(message = "Email tidak boleh kosong")
     @Column(unique = true)
     private String email;
+    // Stored as a BCrypt hash; accepted in request bodies but never written back out
     @NotEmpty(message = "Password tidak boleh kosong")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
+    @Version
+    private long version;
 
 }
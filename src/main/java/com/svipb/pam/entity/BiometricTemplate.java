@@ -0,0 +1,40 @@
+package com.svipb.pam.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+// Enrolled face or fingerprint feature vector, one per user and modality; the rows go with the user
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "biometric_templates", uniqueConstraints = {
+        @UniqueConstraint(name = "biometric_user_modality_key", columnNames = {"user_id", "modality"})
+})
+public class BiometricTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+    // FACEID or FINGERID
+    @Column(nullable = false, length = 16)
+    private String modality;
+    // Unit-length vector, stored as little-endian float32
+    @Convert(converter = FloatVectorConverter.class)
+    @Column(nullable = false, length = 8192)
+    private float[] features;
+    @Column(name = "enrolled_at", nullable = false)
+    private Instant enrolledAt;
+}
@@ -0,0 +1,29 @@
+package com.svipb.pam.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Checkpoint of who is inside which port's zone; rows are rewritten in batches by OccupancyCheckpointer
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "occupancy", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_occupancy_port_user", columnNames = {"port", "user_id"})
+})
+public class OccupancyEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Column(nullable = false)
+    private String port;
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+    @Column(name = "entered_at", nullable = false)
+    private Instant enteredAt;
+}
@@ -0,0 +1,6 @@
+package com.svipb.pam.entity;
+
+// What a matching AccessRule does; DENY wins over ALLOW
+public enum RuleEffect {
+    ALLOW, DENY
+}
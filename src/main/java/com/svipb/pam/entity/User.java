@@ -1,20 +1,31 @@
 package com.svipb.pam.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.Instant;
 
 @Data
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"email"}),
-        @UniqueConstraint(columnNames = {"rfid"}),
-        @UniqueConstraint(columnNames = {"faceid"}),
-        @UniqueConstraint(columnNames = {"fingerid"})
+        // Named so UserService can tell from a violation which column collided
+        @UniqueConstraint(name = "user_email_key", columnNames = {"email"}),
+        @UniqueConstraint(name = "user_rfid_key", columnNames = {"rfid"}),
+        @UniqueConstraint(name = "user_faceid_key", columnNames = {"faceid"}),
+        @UniqueConstraint(name = "user_fingerid_key", columnNames = {"fingerid"})
+}, indexes = {
+        // Backs keyset pagination ordered by name
+        @Index(name = "idx_users_name_id", columnList = "name, id")
 })
 public class User {
     @Id
@@ -25,7 +36,6 @@ public class User {
     private String name;
     @Email(message = "Email tidak valid")
     @NotEmpty(message = "Email tidak boleh kosong")
-    @Column(unique = true )
     private String email;
     @NotEmpty(message = "Jabatan tidak boleh kosong")
     private String status;
@@ -33,10 +43,22 @@ public class User {
     private String gender;
     @NotNull
     private int phone;
-    @Column(unique = true)
     private int rfid;
-    @Column(unique = true)
     private int faceid;
-    @Column(unique = true)
     private int fingerid;
+    // Deactivated users keep their row but are dropped from the credential index, so gates deny them
+    private boolean deactivated;
+    // Visitor passes: gates admit the user only inside this window; null leaves that side open
+    @Column(name = "valid_from")
+    private Instant validFrom;
+    @Column(name = "valid_until")
+    private Instant validUntil;
+    // Bumped by every write; PATCH only applies when the client's version still matches
+    @Version
+    private long version;
+
+    @AssertTrue(message = "Akhir masa berlaku harus setelah awal masa berlaku")
+    private boolean isValidityWindowOrdered() {
+        return validFrom == null || validUntil == null || validUntil.isAfter(validFrom);
+    }
 }
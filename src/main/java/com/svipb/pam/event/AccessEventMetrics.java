@@ -0,0 +1,9 @@
+package com.svipb.pam.event;
+
+/**
+ * Counters of the access event pipeline. {@code dropped} counts scans rejected because the
+ * buffer was full; {@code failed} counts events lost to a failed batch insert.
+ */
+public record AccessEventMetrics(long offered, long dropped, long written, long failed, long batches,
+                                 int queued, int capacity) {
+}
@@ -0,0 +1,14 @@
+package com.svipb.pam.event;
+
+import com.svipb.pam.index.CredentialType;
+import com.svipb.pam.index.Direction;
+
+import java.time.Instant;
+
+/**
+ * A gate scan waiting in the ring buffer to be persisted. {@code userId} is null when the
+ * credential did not resolve to a user, {@code direction} when the gate did not report one.
+ */
+public record AccessEventRecord(Integer userId, CredentialType credentialType, int credential, String port,
+                                Direction direction, boolean granted, Instant occurredAt) {
+}
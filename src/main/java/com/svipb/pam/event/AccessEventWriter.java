@@ -0,0 +1,123 @@
+package com.svipb.pam.event;
+
+import com.svipb.pam.repository.AccessEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Accepts gate scans into a {@link MpscRingBuffer} and persists them from a single
+ * background thread in batches, so recording a scan costs one CAS on the request thread.
+ * When the buffer is full the scan is dropped and counted rather than blocking the gate.
+ */
+@Component
+public class AccessEventWriter implements SmartLifecycle {
+
+    private final AccessEventRepository accessEventRepository;
+    private final MpscRingBuffer<AccessEventRecord> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Logger logger = LoggerFactory.getLogger(AccessEventWriter.class);
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    private Thread drainThread;
+
+    public AccessEventWriter(AccessEventRepository accessEventRepository,
+                             @Value("${pam.access-events.capacity:65536}") int capacity,
+                             @Value("${pam.access-events.batch-size:1000}") int batchSize,
+                             @Value("${pam.access-events.flush-interval-ms:200}") long flushIntervalMs) {
+        this.accessEventRepository = accessEventRepository;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+    }
+
+    /**
+     * Queues a scan for persistence without blocking.
+     *
+     * @return false if the buffer was full and the event was dropped
+     */
+    public boolean record(AccessEventRecord event) {
+        offered.increment();
+        if (buffer.offer(event)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public AccessEventMetrics metrics() {
+        return new AccessEventMetrics(offered.sum(), dropped.sum(), written.sum(), failed.sum(), batches.sum(),
+                buffer.size(), buffer.capacity());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        drainThread = new Thread(this::drainLoop, "access-event-writer");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<AccessEventRecord> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.nanoTime();
+        while (running) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            boolean due = System.nanoTime() - lastFlush >= flushIntervalNanos;
+            if (batch.size() >= batchSize || (due && !batch.isEmpty())) {
+                flush(batch);
+                lastFlush = System.nanoTime();
+            } else if (buffer.size() == 0) {
+                // Producers never signal, so poll at a fraction of the flush interval
+                LockSupport.parkNanos(Math.max(flushIntervalNanos / 4, TimeUnit.MILLISECONDS.toNanos(1)));
+            }
+        }
+        // Shutdown: persist whatever is still buffered
+        while (buffer.drainTo(batch, batchSize - batch.size()) > 0 || !batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AccessEventRecord> batch) {
+        try {
+            accessEventRepository.batchInsert(batch);
+            written.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            logger.error("Failed to persist {} access events", batch.size(), e);
+        }
+        batch.clear();
+    }
+}
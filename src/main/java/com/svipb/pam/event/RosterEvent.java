@@ -0,0 +1,15 @@
+package com.svipb.pam.event;
+
+import com.svipb.pam.dto.UserSummary;
+
+/**
+ * One entry of the roster change stream. {@code id} is {@code <epoch>-<sequence>} and is what
+ * clients send back as {@code Last-Event-ID}. A {@link Type#RESET} means the subscriber missed
+ * changes (buffer overflow, history aged out or server restart) and must reload the listing.
+ */
+public record RosterEvent(String id, Type type, int userId, UserSummary user) {
+
+    public enum Type {
+        SAVED, DELETED, RESET
+    }
+}
@@ -0,0 +1,280 @@
+package com.svipb.pam.event;
+
+import com.svipb.pam.dto.UserSummary;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed user writes to Server-Sent Events subscribers. Every change is numbered and
+ * kept in a fixed-size history ring so a reconnecting client can resume from its
+ * {@code Last-Event-ID}. Each subscriber has its own bounded buffer that keeps only the latest
+ * event per user id, drained by a virtual thread, so a slow client never blocks the writer
+ * that committed the change. A subscriber that falls further behind than its buffer gets a
+ * single {@link RosterEvent.Type#RESET} instead.
+ */
+@Component
+public class RosterEventStream implements UserChangeListener, DisposableBean {
+
+    // Reset entries are keyed below every real user id so they sort ahead of the changes after them
+    private static final int RESET_KEY = Integer.MIN_VALUE;
+
+    private final long epoch = System.currentTimeMillis();
+    private final String epochPrefix = Long.toString(epoch, 36) + "-";
+    private final RosterEvent[] history;
+    private final int bufferSize;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberIds = new AtomicInteger();
+    private final Logger logger = LoggerFactory.getLogger(RosterEventStream.class);
+    private long sequence;
+    // The startup replay of existing rows is not a change; ignore it
+    private volatile boolean loaded;
+
+    public RosterEventStream() {
+        this(10_000, 1_000, 15_000, 1_800_000);
+    }
+
+    @Autowired
+    public RosterEventStream(@Value("${pam.users.stream.history:10000}") int historySize,
+                             @Value("${pam.users.stream.buffer:1000}") int bufferSize,
+                             @Value("${pam.users.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                             @Value("${pam.users.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this.history = new RosterEvent[historySize];
+        this.bufferSize = bufferSize;
+        this.heartbeatMillis = heartbeatMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // Open an SSE stream, replaying what the client missed after lastEventId
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = subscribe(lastEventId, new Sink() {
+            @Override
+            public void send(RosterEvent event) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(event.id())
+                        .name(event.type().name().toLowerCase(Locale.ROOT))
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                emitter.send(SseEmitter.event().comment("ping"));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        return emitter;
+    }
+
+    Subscriber subscribe(String lastEventId, Sink sink) {
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), sink);
+        lock.lock();
+        try {
+            // Replay and registration under the same lock, so nothing is missed or sent twice
+            replay(lastEventId, subscriber);
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        Thread.ofVirtual().name("roster-stream-" + subscriber.id).start(subscriber::run);
+        return subscriber;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void onUserSaved(User user) {
+        publish(RosterEvent.Type.SAVED, user.getId(), UserSummary.of(user));
+    }
+
+    @Override
+    public void onUserDeleted(int id) {
+        publish(RosterEvent.Type.DELETED, id, null);
+    }
+
+    @Override
+    public void onInitialLoadComplete() {
+        loaded = true;
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private void publish(RosterEvent.Type type, int userId, UserSummary user) {
+        if (!loaded) {
+            return;
+        }
+        lock.lock();
+        try {
+            sequence++;
+            RosterEvent event = new RosterEvent(epochPrefix + sequence, type, userId, user);
+            history[(int) (sequence % history.length)] = event;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void replay(String lastEventId, Subscriber subscriber) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        long since = parseSequence(lastEventId);
+        if (since < 0 || since > sequence || since < sequence - history.length) {
+            subscriber.offer(resetEvent());
+            return;
+        }
+        for (long s = since + 1; s <= sequence; s++) {
+            subscriber.offer(history[(int) (s % history.length)]);
+        }
+    }
+
+    // -1 when the id is malformed or from an earlier run
+    private long parseSequence(String lastEventId) {
+        if (!lastEventId.startsWith(epochPrefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(epochPrefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Carries the current position, so a client that reloads and reconnects with it misses nothing
+    private RosterEvent resetEvent() {
+        return new RosterEvent(epochPrefix + sequence, RosterEvent.Type.RESET, 0, null);
+    }
+
+    interface Sink {
+        void send(RosterEvent event) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    final class Subscriber {
+
+        private final int id;
+        private final Sink sink;
+        private final LinkedHashMap<Integer, RosterEvent> pending = new LinkedHashMap<>();
+        private final ReentrantLock bufferLock = new ReentrantLock();
+        private final Condition ready = bufferLock.newCondition();
+        private boolean closed;
+
+        private Subscriber(int id, Sink sink) {
+            this.id = id;
+            this.sink = sink;
+        }
+
+        // Called with the stream lock held, so it must never block on the client
+        void offer(RosterEvent event) {
+            bufferLock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                int key = event.type() == RosterEvent.Type.RESET ? RESET_KEY : event.userId();
+                pending.remove(key);
+                pending.put(key, event);
+                if (pending.size() > bufferSize) {
+                    pending.clear();
+                    pending.put(RESET_KEY, resetEvent());
+                }
+                ready.signal();
+            } finally {
+                bufferLock.unlock();
+            }
+        }
+
+        void close() {
+            bufferLock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+                ready.signal();
+            } finally {
+                bufferLock.unlock();
+            }
+            subscribers.remove(this);
+            sink.close();
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    List<RosterEvent> batch = take();
+                    if (batch == null) {
+                        return;
+                    }
+                    if (batch.isEmpty()) {
+                        sink.heartbeat();
+                    }
+                    for (RosterEvent event : batch) {
+                        sink.send(event);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.atDebug().addKeyValue("subscriber", id).setCause(e).log("Roster stream subscriber dropped");
+                close();
+            } catch (InterruptedException e) {
+                close();
+            }
+        }
+
+        // Pending events in order, an empty list when the heartbeat is due, null once closed
+        private List<RosterEvent> take() throws InterruptedException {
+            bufferLock.lock();
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+                while (pending.isEmpty() && !closed && remaining > 0) {
+                    remaining = ready.awaitNanos(remaining);
+                }
+                if (closed) {
+                    return null;
+                }
+                List<RosterEvent> batch = new ArrayList<>(pending.values());
+                pending.clear();
+                return batch;
+            } finally {
+                bufferLock.unlock();
+            }
+        }
+    }
+}
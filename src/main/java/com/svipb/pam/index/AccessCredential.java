@@ -0,0 +1,31 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of the columns a gate needs to admit a user. Kept in memory by
+ * {@link CredentialIndex} instead of the managed {@link User} entity.
+ */
+public record AccessCredential(int userId, String name, String status, int rfid, int faceid, int fingerid,
+                               Instant validFrom, Instant validUntil) {
+
+    public static AccessCredential of(User user) {
+        return new AccessCredential(user.getId(), user.getName(), user.getStatus(),
+                user.getRfid(), user.getFaceid(), user.getFingerid(), user.getValidFrom(), user.getValidUntil());
+    }
+
+    // Inside the user's validity window; always true for users without one
+    public boolean validAt(Instant at) {
+        return (validFrom == null || !at.isBefore(validFrom)) && (validUntil == null || at.isBefore(validUntil));
+    }
+
+    public int credential(CredentialType type) {
+        return switch (type) {
+            case RFID -> rfid;
+            case FACEID -> faceid;
+            case FINGERID -> fingerid;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.AccessRule;
+import com.svipb.pam.entity.RuleEffect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Answers "may this credential open this port now" from a {@link CompiledAccessRules} held in
+ * an {@link AtomicReference}. Rule edits compile a complete new instance and swap it in, so a
+ * scan always sees either the old or the new rule set and never takes a lock. DENY beats
+ * ALLOW; when no rule matches, {@code pam.access-rules.default} decides, so an empty rule set
+ * keeps admitting every registered credential.
+ */
+@Component
+public class AccessRuleEngine {
+
+    private final AtomicReference<CompiledAccessRules> compiled = new AtomicReference<>(CompiledAccessRules.EMPTY);
+    private final RuleEffect defaultEffect;
+    private final ZoneId zone;
+
+    public AccessRuleEngine() {
+        this(RuleEffect.ALLOW, ZoneId.systemDefault());
+    }
+
+    @Autowired
+    public AccessRuleEngine(@Value("${pam.access-rules.default:ALLOW}") RuleEffect defaultEffect,
+                            @Value("${pam.access-rules.zone:}") String zone) {
+        this(defaultEffect, zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone));
+    }
+
+    public AccessRuleEngine(RuleEffect defaultEffect, ZoneId zone) {
+        this.defaultEffect = defaultEffect;
+        this.zone = zone;
+    }
+
+    public boolean allows(String port, AccessCredential credential, Instant at) {
+        RuleEffect effect = compiled.get().decide(port, credential.status(), credential.userId(), minuteOfWeek(at));
+        return (effect == null ? defaultEffect : effect) == RuleEffect.ALLOW;
+    }
+
+    // Replace the whole rule set; callers pass every rule, not a change
+    public void recompile(Collection<AccessRule> rules) {
+        compiled.set(CompiledAccessRules.compile(rules));
+    }
+
+    public int ruleCount() {
+        return compiled.get().ruleCount();
+    }
+
+    private int minuteOfWeek(Instant at) {
+        ZonedDateTime local = at.atZone(zone);
+        return (local.getDayOfWeek().getValue() - 1) * CompiledAccessRules.MINUTES_PER_DAY
+                + local.getHour() * 60 + local.getMinute();
+    }
+}
@@ -0,0 +1,300 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory 1:N identification over enrolled face and fingerprint templates. Every modality
+ * keeps an exact {@link FlatVectorIndex}; once it holds {@code hnswThreshold} templates an
+ * {@link HnswIndex} is built next to it and answers queries instead, because a full scan no
+ * longer fits the gate's latency budget. Graphs are built from a copy in the background, so
+ * identification keeps being answered (from the flat index or the previous graph) meanwhile. Filled at startup by {@link BiometricIndexInitializer}
+ * and updated by {@code BiometricService} after each enrolment commits.
+ */
+@Component
+public class BiometricIndex implements UserChangeListener {
+
+    private final Map<CredentialType, Modality> modalities = new EnumMap<>(CredentialType.class);
+    private final int dimension;
+    private final int hnswThreshold;
+    private final int hnswM;
+    private final int hnswEfConstruction;
+    private final int hnswEfSearch;
+    private final Logger logger = LoggerFactory.getLogger(BiometricIndex.class);
+
+    public BiometricIndex() {
+        this(128, 200_000, 16, 100, 128);
+    }
+
+    @Autowired
+    public BiometricIndex(@Value("${pam.biometrics.dimension:128}") int dimension,
+                          @Value("${pam.biometrics.hnsw.threshold:200000}") int hnswThreshold,
+                          @Value("${pam.biometrics.hnsw.m:16}") int hnswM,
+                          @Value("${pam.biometrics.hnsw.ef-construction:100}") int hnswEfConstruction,
+                          @Value("${pam.biometrics.hnsw.ef-search:128}") int hnswEfSearch) {
+        this.dimension = dimension;
+        this.hnswThreshold = hnswThreshold;
+        this.hnswM = hnswM;
+        this.hnswEfConstruction = hnswEfConstruction;
+        this.hnswEfSearch = hnswEfSearch;
+        modalities.put(CredentialType.FACEID, new Modality(CredentialType.FACEID));
+        modalities.put(CredentialType.FINGERID, new Modality(CredentialType.FINGERID));
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public boolean supports(CredentialType type) {
+        return modalities.containsKey(type);
+    }
+
+    /**
+     * Scales a raw feature vector to unit length, so that similarity is a plain dot product.
+     *
+     * @throws IllegalArgumentException on a wrong dimension, a non-finite value or a zero vector
+     */
+    public float[] unitVector(float[] features) {
+        if (features == null || features.length != dimension) {
+            throw new IllegalArgumentException("Vektor harus berdimensi " + dimension);
+        }
+        double norm = 0;
+        for (float value : features) {
+            if (!Float.isFinite(value)) {
+                throw new IllegalArgumentException("Vektor berisi nilai tidak valid");
+            }
+            norm += (double) value * value;
+        }
+        if (norm == 0) {
+            throw new IllegalArgumentException("Vektor tidak boleh nol");
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] unit = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            unit[i] = features[i] * scale;
+        }
+        return unit;
+    }
+
+    // Closest enrolled template; the vector must come from unitVector
+    public Optional<VectorMatch> identify(CredentialType type, float[] unitVector) {
+        return modality(type).identify(unitVector);
+    }
+
+    public void enroll(CredentialType type, int userId, float[] unitVector) {
+        modality(type).put(userId, unitVector);
+    }
+
+    public void remove(CredentialType type, int userId) {
+        modality(type).remove(userId);
+    }
+
+    public int size(CredentialType type) {
+        return modality(type).size();
+    }
+
+    public boolean usesHnsw(CredentialType type) {
+        return modality(type).usesHnsw();
+    }
+
+    // Build the graphs for modalities that were already large at startup
+    public void loadComplete() {
+        modalities.values().forEach(Modality::rebuildIfNeeded);
+    }
+
+    @Override
+    public void onUserSaved(User user) {
+        // Templates change through BiometricService, not through user writes
+    }
+
+    @Override
+    public void onUserDeleted(int id) {
+        // The database drops the templates with the user (ON DELETE CASCADE)
+        modalities.values().forEach(modality -> modality.remove(id));
+    }
+
+    private Modality modality(CredentialType type) {
+        Modality modality = modalities.get(type);
+        if (modality == null) {
+            throw new IllegalArgumentException("Tipe biometrik tidak didukung: " + type);
+        }
+        return modality;
+    }
+
+    private final class Modality {
+
+        private final CredentialType type;
+        private final FlatVectorIndex flat = new FlatVectorIndex(dimension);
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private HnswIndex hnsw;
+        private boolean loading = true;
+        // Non-null while a graph is being built: the changes it has not seen, replayed before the swap
+        private List<Change> pending;
+
+        Modality(CredentialType type) {
+            this.type = type;
+        }
+
+        Optional<VectorMatch> identify(float[] query) {
+            lock.readLock().lock();
+            try {
+                VectorIndex index = hnsw != null ? hnsw : flat;
+                return index.search(query, 1).stream().findFirst();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(int userId, float[] vector) {
+            FlatVectorIndex.Snapshot snapshot;
+            lock.writeLock().lock();
+            try {
+                flat.put(userId, vector);
+                if (hnsw != null) {
+                    hnsw.put(userId, vector);
+                }
+                if (pending != null) {
+                    pending.add(new Change(userId, vector));
+                }
+                snapshot = startRebuildIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuildInBackground(snapshot);
+        }
+
+        void remove(int userId) {
+            FlatVectorIndex.Snapshot snapshot;
+            lock.writeLock().lock();
+            try {
+                flat.remove(userId);
+                if (hnsw != null) {
+                    hnsw.remove(userId);
+                }
+                if (pending != null) {
+                    pending.add(new Change(userId, null));
+                }
+                snapshot = startRebuildIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuildInBackground(snapshot);
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return flat.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean usesHnsw() {
+            lock.readLock().lock();
+            try {
+                return hnsw != null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Runs on the loading thread, so startup waits for the graph, but identification is served from flat meanwhile
+        void rebuildIfNeeded() {
+            FlatVectorIndex.Snapshot snapshot;
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                snapshot = startRebuildIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (snapshot != null) {
+                rebuild(snapshot);
+            }
+        }
+
+        // A graph is needed once flat reaches the threshold, and is rebuilt when tombstones from removals and
+        // re-enrolments reach a quarter of it, since they cost search time and recall. Caller holds the write lock.
+        private FlatVectorIndex.Snapshot startRebuildIfNeeded() {
+            if (loading || pending != null) {
+                return null;
+            }
+            if (hnsw != null && flat.size() < hnswThreshold) {
+                hnsw = null;
+            }
+            boolean needed = hnsw == null ? flat.size() >= hnswThreshold : hnsw.deletedNodes() > hnsw.size() / 4;
+            if (!needed) {
+                return null;
+            }
+            pending = new ArrayList<>();
+            return flat.snapshot();
+        }
+
+        private void rebuildInBackground(FlatVectorIndex.Snapshot snapshot) {
+            if (snapshot != null) {
+                Thread builder = new Thread(() -> rebuild(snapshot), "biometric-index-" + type.name().toLowerCase(Locale.ROOT));
+                builder.setDaemon(true);
+                builder.start();
+            }
+        }
+
+        // Builds without the lock; only replaying the changes made meanwhile and the swap hold it
+        private void rebuild(FlatVectorIndex.Snapshot snapshot) {
+            long start = System.nanoTime();
+            HnswIndex graph = null;
+            try {
+                graph = new HnswIndex(dimension, hnswM, hnswEfConstruction, hnswEfSearch);
+                snapshot.forEach(graph::put);
+            } catch (RuntimeException e) {
+                graph = null;
+                logger.error("Failed to build HNSW biometric index for {}", type, e);
+            }
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                replayed = pending.size();
+                if (graph != null) {
+                    for (Change change : pending) {
+                        change.applyTo(graph);
+                    }
+                    hnsw = flat.size() >= hnswThreshold ? graph : null;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (graph != null) {
+                logger.atInfo().addKeyValue("modality", type).addKeyValue("templates", snapshot.userIds().length)
+                        .addKeyValue("replayed", replayed).addKeyValue("ms", (System.nanoTime() - start) / 1_000_000)
+                        .log("Built HNSW biometric index");
+            }
+        }
+    }
+
+    // An enrolment (vector) or removal (null) made while a graph was being built
+    private record Change(int userId, float[] vector) {
+
+        void applyTo(VectorIndex index) {
+            if (vector == null) {
+                index.remove(userId);
+            } else {
+                index.put(userId, vector);
+            }
+        }
+    }
+}
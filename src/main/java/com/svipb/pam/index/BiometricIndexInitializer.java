@@ -0,0 +1,62 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.BiometricTemplate;
+import com.svipb.pam.repository.BiometricTemplateRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Loads every enrolled template into {@link BiometricIndex} before the web server starts
+ * taking requests, then lets the index build its HNSW graphs.
+ */
+@Component
+public class BiometricIndexInitializer implements SmartInitializingSingleton {
+
+    private final BiometricTemplateRepository templateRepository;
+    private final BiometricIndex biometricIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Logger logger = LoggerFactory.getLogger(BiometricIndexInitializer.class);
+
+    public BiometricIndexInitializer(BiometricTemplateRepository templateRepository, BiometricIndex biometricIndex,
+                                     EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.templateRepository = templateRepository;
+        this.biometricIndex = biometricIndex;
+        this.entityManager = entityManager;
+        // Not read-only on purpose: the index must be built from the primary, not a lagging replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        AtomicInteger count = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BiometricTemplate> templates = templateRepository.streamAll()) {
+                templates.forEach(template -> {
+                    CredentialType type = CredentialType.valueOf(template.getModality());
+                    if (template.getFeatures().length == biometricIndex.dimension()) {
+                        biometricIndex.enroll(type, template.getUserId(), template.getFeatures());
+                        count.incrementAndGet();
+                    } else {
+                        // Enrolled under another pam.biometrics.dimension; the user has to re-enrol
+                        skipped.incrementAndGet();
+                    }
+                    entityManager.detach(template);
+                });
+            }
+        });
+        biometricIndex.loadComplete();
+        logger.atInfo().addKeyValue("templates", count.get()).addKeyValue("skipped", skipped.get())
+                .addKeyValue("ms", (System.nanoTime() - start) / 1_000_000).log("Loaded biometric templates");
+    }
+}
@@ -0,0 +1,109 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.AccessRule;
+import com.svipb.pam.entity.RuleEffect;
+
+import java.util.*;
+
+/**
+ * Immutable form of the rule set. Rules are grouped by their exact (port, status, userId)
+ * scope, with null meaning "any", and each scope holds one allow and one deny bitset over the
+ * 10080 minutes of a week. A decision therefore probes at most eight scopes and tests one bit
+ * in each, however many rules there are.
+ */
+final class CompiledAccessRules {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    static final CompiledAccessRules EMPTY = new CompiledAccessRules(Map.of(), 0);
+
+    private final Map<Scope, Windows> windows;
+    private final int ruleCount;
+
+    private CompiledAccessRules(Map<Scope, Windows> windows, int ruleCount) {
+        this.windows = windows;
+        this.ruleCount = ruleCount;
+    }
+
+    static CompiledAccessRules compile(Collection<AccessRule> rules) {
+        Map<Scope, Windows> windows = new HashMap<>();
+        for (AccessRule rule : rules) {
+            Scope scope = new Scope(normalize(rule.getPort()), normalize(rule.getStatus()),
+                    rule.getUserId() == null ? 0 : rule.getUserId());
+            Windows scoped = windows.computeIfAbsent(scope, key -> new Windows());
+            mark(rule.getEffect() == RuleEffect.DENY ? scoped.deny : scoped.allow, rule);
+        }
+        return new CompiledAccessRules(Map.copyOf(windows), rules.size());
+    }
+
+    int ruleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * @return the effect of the matching rules at {@code minuteOfWeek}, or null when none match
+     */
+    RuleEffect decide(String port, String status, int userId, int minuteOfWeek) {
+        String[] ports = orAny(normalize(port));
+        String[] statuses = orAny(normalize(status));
+        int[] users = userId == 0 ? new int[]{0} : new int[]{userId, 0};
+        boolean allowed = false;
+        for (String p : ports) {
+            for (String s : statuses) {
+                for (int u : users) {
+                    Windows scoped = windows.get(new Scope(p, s, u));
+                    if (scoped != null) {
+                        if (scoped.deny.get(minuteOfWeek)) {
+                            return RuleEffect.DENY;
+                        }
+                        allowed |= scoped.allow.get(minuteOfWeek);
+                    }
+                }
+            }
+        }
+        return allowed ? RuleEffect.ALLOW : null;
+    }
+
+    // The value's own scope plus the wildcard scope
+    private static String[] orAny(String value) {
+        return value == null ? new String[]{null} : new String[]{value, null};
+    }
+
+    private static void mark(BitSet bits, AccessRule rule) {
+        int days = rule.getDays() == 0 ? 0x7F : rule.getDays();
+        int start = rule.getStartMinute();
+        int end = rule.getEndMinute();
+        for (int day = 0; day < 7; day++) {
+            if ((days & (1 << day)) == 0) {
+                continue;
+            }
+            int base = day * MINUTES_PER_DAY;
+            if (start < end) {
+                bits.set(base + start, base + end);
+            } else if (start == end) {
+                bits.set(base, base + MINUTES_PER_DAY);
+            } else {
+                // Overnight: to midnight, then into the next day (Sunday wraps to Monday)
+                bits.set(base + start, base + MINUTES_PER_DAY);
+                int next = ((day + 1) % 7) * MINUTES_PER_DAY;
+                bits.set(next, next + end);
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Scope(String port, String status, int userId) {
+    }
+
+    private static final class Windows {
+        private final BitSet allow = new BitSet(MINUTES_PER_WEEK);
+        private final BitSet deny = new BitSet(MINUTES_PER_WEEK);
+    }
+}
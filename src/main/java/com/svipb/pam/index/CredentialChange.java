@@ -0,0 +1,13 @@
+package com.svipb.pam.index;
+
+/**
+ * One entry of the credential change log.
+ *
+ * @param credential the user's credentials after the change, or null when the user was deleted
+ */
+public record CredentialChange(long version, int userId, AccessCredential credential) {
+
+    public boolean deleted() {
+        return credential == null;
+    }
+}
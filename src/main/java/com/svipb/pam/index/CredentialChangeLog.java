@@ -0,0 +1,56 @@
+package com.svipb.pam.index;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-size ring of the most recent credential changes, addressed by version number.
+ * Not thread-safe; {@link CredentialIndex} only touches it under its own lock.
+ */
+class CredentialChangeLog {
+
+    private final CredentialChange[] ring;
+    private long version;
+    // Versions at or below this are not in the ring; clients that far behind need a snapshot
+    private long floor;
+
+    CredentialChangeLog(int capacity) {
+        this.ring = new CredentialChange[capacity];
+    }
+
+    long version() {
+        return version;
+    }
+
+    long append(int userId, AccessCredential credential) {
+        version++;
+        ring[(int) (version % ring.length)] = new CredentialChange(version, userId, credential);
+        floor = Math.max(floor, version - ring.length);
+        return version;
+    }
+
+    // Forget history, e.g. after the initial load, so the ring holds only real churn
+    void truncate() {
+        floor = version;
+    }
+
+    /**
+     * Latest change per user after {@code since}, in version order.
+     *
+     * @return null when {@code since} is older than the retained history
+     */
+    Collection<CredentialChange> since(long since) {
+        if (since < floor || since > version) {
+            return null;
+        }
+        Map<Integer, CredentialChange> latest = new LinkedHashMap<>();
+        for (long v = since + 1; v <= version; v++) {
+            CredentialChange change = ring[(int) (v % ring.length)];
+            latest.remove(change.userId());
+            latest.put(change.userId(), change);
+        }
+        return latest.values();
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.svipb.pam.index;
+
+import java.util.List;
+
+// Latest change per user between two versions of the credential index
+public record CredentialDelta(long epoch, long fromVersion, long toVersion, List<CredentialChange> changes) {
+}
@@ -0,0 +1,191 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory lookup from a scanned RFID/FaceID/FingerID to the owning user, so gate
+ * verification never waits on MySQL. Filled at startup by {@link UserIndexInitializer}
+ * and kept current through {@link UserChangeListener} callbacks from {@code UserService}.
+ * Every change bumps a version number and is kept in a bounded change log, so gate
+ * controllers can sync a local copy by delta instead of re-reading the whole roster.
+ */
+@Component
+public class CredentialIndex implements UserChangeListener {
+
+    private final IntObjectHashMap<AccessCredential> byUserId = new IntObjectHashMap<>();
+    private final Map<CredentialType, IntObjectHashMap<AccessCredential>> byCredential = new EnumMap<>(CredentialType.class);
+    private final CredentialChangeLog changeLog;
+    private final long epoch = System.currentTimeMillis();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CredentialIndex() {
+        this(100_000);
+    }
+
+    @Autowired
+    public CredentialIndex(@Value("${pam.credentials.change-log-size:100000}") int changeLogSize) {
+        this.changeLog = new CredentialChangeLog(changeLogSize);
+        for (CredentialType type : CredentialType.values()) {
+            byCredential.put(type, new IntObjectHashMap<>());
+        }
+    }
+
+    // Resolve a scanned credential to its owner
+    public Optional<AccessCredential> lookup(CredentialType type, int credential) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byCredential.get(type).get(credential));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<AccessCredential> findByUserId(int userId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byUserId.get(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byUserId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        lock.readLock().lock();
+        try {
+            return changeLog.version();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public CredentialSnapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            List<AccessCredential> credentials = new ArrayList<>(byUserId.size());
+            byUserId.forEach((id, credential) -> credentials.add(credential));
+            return new CredentialSnapshot(epoch, changeLog.version(), credentials);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes after {@code since}, at most one per user.
+     *
+     * @return empty when {@code epoch} is from an earlier run or {@code since} has aged out of
+     * the change log; the caller then needs a full {@link #snapshot()}
+     */
+    public Optional<CredentialDelta> changesSince(long epoch, long since) {
+        lock.readLock().lock();
+        try {
+            if (epoch != this.epoch) {
+                return Optional.empty();
+            }
+            Collection<CredentialChange> changes = changeLog.since(since);
+            if (changes == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new CredentialDelta(epoch, since, changeLog.version(), new ArrayList<>(changes)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    @Override
+    public void onUserSaved(User user) {
+        if (user.isDeactivated() || (user.getValidUntil() != null && !user.getValidUntil().isAfter(Instant.now()))) {
+            // Gates treat a deactivated user or an expired pass exactly like an unknown credential
+            onUserDeleted(user.getId());
+            return;
+        }
+        AccessCredential credential = AccessCredential.of(user);
+        lock.writeLock().lock();
+        try {
+            AccessCredential previous = byUserId.put(credential.userId(), credential);
+            if (previous != null) {
+                unlink(previous);
+            }
+            for (CredentialType type : CredentialType.values()) {
+                byCredential.get(type).put(credential.credential(type), credential);
+            }
+            changeLog.append(credential.userId(), credential);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUserDeleted(int id) {
+        lock.writeLock().lock();
+        try {
+            AccessCredential previous = byUserId.remove(id);
+            if (previous != null) {
+                unlink(previous);
+                changeLog.append(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the user's credential if the indexed pass ends at or before {@code nowMillis}. A pass
+     * extended since its deadline fired was already re-indexed with the new window and stays.
+     */
+    public void expire(int id, long nowMillis) {
+        lock.writeLock().lock();
+        try {
+            AccessCredential current = byUserId.get(id);
+            if (current != null && current.validUntil() != null && current.validUntil().toEpochMilli() <= nowMillis) {
+                byUserId.remove(id);
+                unlink(current);
+                changeLog.append(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onInitialLoadComplete() {
+        lock.writeLock().lock();
+        try {
+            changeLog.truncate();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drop the credential slots still owned by this entry; another user may have taken them over since
+    private void unlink(AccessCredential entry) {
+        for (CredentialType type : CredentialType.values()) {
+            IntObjectHashMap<AccessCredential> map = byCredential.get(type);
+            AccessCredential current = map.get(entry.credential(type));
+            if (current != null && current.userId() == entry.userId()) {
+                map.remove(entry.credential(type));
+            }
+        }
+    }
+}
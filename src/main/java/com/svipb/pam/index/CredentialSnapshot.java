@@ -0,0 +1,10 @@
+package com.svipb.pam.index;
+
+import java.util.List;
+
+/**
+ * Point-in-time copy of the credential index. {@code epoch} changes on every restart, so a
+ * gate controller holding versions from an earlier epoch knows to take a fresh snapshot.
+ */
+public record CredentialSnapshot(long epoch, long version, List<AccessCredential> credentials) {
+}
@@ -0,0 +1,84 @@
+package com.svipb.pam.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Big-endian binary encoding of snapshots and deltas for gate controllers.
+ *
+ * <pre>
+ * snapshot: int magic 'PAMS', byte format, long epoch, long version, int count,
+ *           count x (int userId, credential)
+ * delta:    int magic 'PAMD', byte format, long epoch, long fromVersion, long toVersion, int count,
+ *           count x (byte op, int userId, [credential] when op = UPSERT)
+ * credential: int rfid, int faceid, int fingerid, utf status, long validFrom, long validUntil
+ * </pre>
+ *
+ * The validity window is in epoch milliseconds, with {@link Long#MIN_VALUE} and
+ * {@link Long#MAX_VALUE} for an open start or end. A gate admits the credential only while
+ * {@code validFrom <= now < validUntil}, so a visitor pass works offline without opening early.
+ */
+public final class CredentialSnapshotCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.pam.credentials";
+
+    static final int SNAPSHOT_MAGIC = 0x50414D53;
+    static final int DELTA_MAGIC = 0x50414D44;
+    static final byte FORMAT = 2;
+    static final byte OP_UPSERT = 1;
+    static final byte OP_DELETE = 2;
+
+    private CredentialSnapshotCodec() {
+    }
+
+    public static byte[] encode(CredentialSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + snapshot.credentials().size() * 40);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeByte(FORMAT);
+            out.writeLong(snapshot.epoch());
+            out.writeLong(snapshot.version());
+            out.writeInt(snapshot.credentials().size());
+            for (AccessCredential credential : snapshot.credentials()) {
+                out.writeInt(credential.userId());
+                writeCredential(out, credential);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static byte[] encode(CredentialDelta delta) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(40 + delta.changes().size() * 41);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(DELTA_MAGIC);
+            out.writeByte(FORMAT);
+            out.writeLong(delta.epoch());
+            out.writeLong(delta.fromVersion());
+            out.writeLong(delta.toVersion());
+            out.writeInt(delta.changes().size());
+            for (CredentialChange change : delta.changes()) {
+                out.writeByte(change.deleted() ? OP_DELETE : OP_UPSERT);
+                out.writeInt(change.userId());
+                if (!change.deleted()) {
+                    writeCredential(out, change.credential());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeCredential(DataOutputStream out, AccessCredential credential) throws IOException {
+        out.writeInt(credential.rfid());
+        out.writeInt(credential.faceid());
+        out.writeInt(credential.fingerid());
+        out.writeUTF(credential.status() == null ? "" : credential.status());
+        out.writeLong(credential.validFrom() == null ? Long.MIN_VALUE : credential.validFrom().toEpochMilli());
+        out.writeLong(credential.validUntil() == null ? Long.MAX_VALUE : credential.validUntil().toEpochMilli());
+    }
+}
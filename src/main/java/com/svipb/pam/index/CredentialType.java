@@ -0,0 +1,8 @@
+package com.svipb.pam.index;
+
+// Credential columns on User that a gate reader can present
+public enum CredentialType {
+    RFID,
+    FACEID,
+    FINGERID
+}
@@ -0,0 +1,7 @@
+package com.svipb.pam.index;
+
+// Which way a scan at a port goes; gates that do not report it skip occupancy tracking
+public enum Direction {
+    IN,
+    OUT
+}
@@ -0,0 +1,101 @@
+package com.svipb.pam.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact search by scanning every vector. Vectors live back to back in one {@code float[]},
+ * so a scan is a single sequential pass over memory; removal moves the last vector into the
+ * freed slot to keep the array dense.
+ */
+final class FlatVectorIndex implements VectorIndex {
+
+    private final int dimension;
+    private final IntObjectHashMap<Integer> slotByUser = new IntObjectHashMap<>();
+    private float[] vectors;
+    private int[] userIds;
+    private int size;
+
+    FlatVectorIndex(int dimension) {
+        this.dimension = dimension;
+        this.vectors = new float[16 * dimension];
+        this.userIds = new int[16];
+    }
+
+    @Override
+    public void put(int userId, float[] vector) {
+        Integer slot = slotByUser.get(userId);
+        if (slot == null) {
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size * 2);
+                vectors = Arrays.copyOf(vectors, size * 2 * dimension);
+            }
+            slot = size++;
+            slotByUser.put(userId, slot);
+            userIds[slot] = userId;
+        }
+        System.arraycopy(vector, 0, vectors, slot * dimension, dimension);
+    }
+
+    @Override
+    public void remove(int userId) {
+        Integer slot = slotByUser.remove(userId);
+        if (slot == null) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            userIds[slot] = userIds[last];
+            System.arraycopy(vectors, last * dimension, vectors, slot * dimension, dimension);
+            slotByUser.put(userIds[slot], slot);
+        }
+    }
+
+    @Override
+    public List<VectorMatch> search(float[] query, int k) {
+        int limit = Math.min(k, size);
+        // Best k kept sorted by insertion; k is tiny next to the number of templates
+        float[] bestScores = new float[limit];
+        int[] bestSlots = new int[limit];
+        int found = 0;
+        for (int slot = 0; slot < size; slot++) {
+            float score = VectorIndex.dot(vectors, slot * dimension, query, dimension);
+            if (found < limit || score > bestScores[found - 1]) {
+                int i = found < limit ? found++ : found - 1;
+                while (i > 0 && bestScores[i - 1] < score) {
+                    bestScores[i] = bestScores[i - 1];
+                    bestSlots[i] = bestSlots[i - 1];
+                    i--;
+                }
+                bestScores[i] = score;
+                bestSlots[i] = slot;
+            }
+        }
+        List<VectorMatch> matches = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            matches.add(new VectorMatch(userIds[bestSlots[i]], bestScores[i]));
+        }
+        return matches;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Copy of every stored vector, two array copies so it is cheap to take under the owner's write lock;
+    // an HNSW graph is then built from it without holding any lock
+    Snapshot snapshot() {
+        return new Snapshot(Arrays.copyOf(userIds, size), Arrays.copyOf(vectors, size * dimension), dimension);
+    }
+
+    record Snapshot(int[] userIds, float[] vectors, int dimension) {
+
+        void forEach(IntObjectHashMap.EntryConsumer<float[]> action) {
+            for (int slot = 0; slot < userIds.length; slot++) {
+                action.accept(userIds[slot], Arrays.copyOfRange(vectors, slot * dimension, (slot + 1) * dimension));
+            }
+        }
+    }
+}
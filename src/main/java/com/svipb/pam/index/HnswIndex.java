@@ -0,0 +1,246 @@
+package com.svipb.pam.index;
+
+import java.util.*;
+
+/**
+ * Approximate search over a Hierarchical Navigable Small World graph (Malkov and Yashunin).
+ * A query descends greedily through the sparse upper layers and then runs a best-first
+ * search of width {@code efSearch} on layer 0, so it visits a few thousand nodes instead
+ * of every template. Removing or re-enrolling a user only tombstones the old node; the owner
+ * rebuilds the graph once tombstones pile up.
+ */
+final class HnswIndex implements VectorIndex {
+
+    private static final int[] NO_LINKS = new int[0];
+
+    private final int dimension;
+    private final int m;
+    private final int maxLinksLayer0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelFactor;
+    // Seeded so the same enrolment order always builds the same graph
+    private final Random random = new Random(42);
+    private final IntObjectHashMap<Integer> nodeByUser = new IntObjectHashMap<>();
+
+    private float[][] vectors = new float[16][];
+    private int[] userIds = new int[16];
+    // links[node][layer] holds the node's neighbours on that layer
+    private int[][][] links = new int[16][][];
+    private boolean[] deleted = new boolean[16];
+    private int nodes;
+    private int deletedNodes;
+    private int entryPoint = -1;
+    private int topLayer = -1;
+
+    HnswIndex(int dimension, int m, int efConstruction, int efSearch) {
+        this.dimension = dimension;
+        this.m = m;
+        this.maxLinksLayer0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.levelFactor = 1 / Math.log(m);
+    }
+
+    @Override
+    public void put(int userId, float[] vector) {
+        remove(userId);
+        int node = newNode(userId, vector);
+        int layer = (int) (-Math.log(1 - random.nextDouble()) * levelFactor);
+        links[node] = new int[layer + 1][];
+        Arrays.fill(links[node], NO_LINKS);
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLayer = layer;
+            return;
+        }
+
+        int entry = entryPoint;
+        for (int l = topLayer; l > layer; l--) {
+            entry = greedyClosest(vector, entry, l);
+        }
+        for (int l = Math.min(layer, topLayer); l >= 0; l--) {
+            long[] candidates = searchLayer(vector, entry, efConstruction, l);
+            int[] neighbours = selectNeighbours(vector, candidates, m);
+            links[node][l] = neighbours;
+            for (int neighbour : neighbours) {
+                connect(neighbour, node, l);
+            }
+            entry = nodeOf(candidates[0]);
+        }
+        if (layer > topLayer) {
+            entryPoint = node;
+            topLayer = layer;
+        }
+    }
+
+    @Override
+    public void remove(int userId) {
+        Integer node = nodeByUser.remove(userId);
+        if (node != null) {
+            deleted[node] = true;
+            deletedNodes++;
+        }
+    }
+
+    @Override
+    public List<VectorMatch> search(float[] query, int k) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+        int entry = entryPoint;
+        for (int l = topLayer; l > 0; l--) {
+            entry = greedyClosest(query, entry, l);
+        }
+        long[] found = searchLayer(query, entry, Math.max(efSearch, k), 0);
+        List<VectorMatch> matches = new ArrayList<>(k);
+        for (int i = 0; i < found.length && matches.size() < k; i++) {
+            int node = nodeOf(found[i]);
+            if (!deleted[node]) {
+                matches.add(new VectorMatch(userIds[node], 1 - distanceOf(found[i])));
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public int size() {
+        return nodes - deletedNodes;
+    }
+
+    int deletedNodes() {
+        return deletedNodes;
+    }
+
+    private int newNode(int userId, float[] vector) {
+        if (nodes == userIds.length) {
+            int capacity = nodes * 2;
+            vectors = Arrays.copyOf(vectors, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            links = Arrays.copyOf(links, capacity);
+            deleted = Arrays.copyOf(deleted, capacity);
+        }
+        int node = nodes++;
+        vectors[node] = vector.clone();
+        userIds[node] = userId;
+        nodeByUser.put(userId, node);
+        return node;
+    }
+
+    private int greedyClosest(float[] query, int entry, int layer) {
+        float best = distance(query, entry);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbour : links[entry][layer]) {
+                float d = distance(query, neighbour);
+                if (d < best) {
+                    best = d;
+                    entry = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return entry;
+    }
+
+    // Best-first search of one layer; returns up to ef (distance, node) keys, closest first
+    private long[] searchLayer(float[] query, int entry, int ef, int layer) {
+        BitSet visited = new BitSet(nodes);
+        PriorityQueue<Long> candidates = new PriorityQueue<>();
+        PriorityQueue<Long> results = new PriorityQueue<>(Comparator.reverseOrder());
+        long start = key(distance(query, entry), entry);
+        visited.set(entry);
+        candidates.add(start);
+        results.add(start);
+        while (!candidates.isEmpty()) {
+            long current = candidates.poll();
+            if (results.size() >= ef && current > results.peek()) {
+                break;
+            }
+            for (int neighbour : links[nodeOf(current)][layer]) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                long candidate = key(distance(query, neighbour), neighbour);
+                if (results.size() < ef || candidate < results.peek()) {
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        long[] sorted = new long[results.size()];
+        int i = 0;
+        for (long result : results) {
+            sorted[i++] = result;
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    // Keep a candidate only if it is closer to the base than to every neighbour already kept,
+    // which spreads links across directions; top up with the closest rejects if short
+    private int[] selectNeighbours(float[] base, long[] candidates, int limit) {
+        int[] selected = new int[Math.min(limit, candidates.length)];
+        int count = 0;
+        boolean[] taken = new boolean[candidates.length];
+        for (int i = 0; i < candidates.length && count < selected.length; i++) {
+            int node = nodeOf(candidates[i]);
+            float toBase = distanceOf(candidates[i]);
+            boolean diverse = true;
+            for (int j = 0; j < count && diverse; j++) {
+                diverse = distance(vectors[node], selected[j]) > toBase;
+            }
+            if (diverse) {
+                selected[count++] = node;
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < candidates.length && count < selected.length; i++) {
+            if (!taken[i]) {
+                selected[count++] = nodeOf(candidates[i]);
+            }
+        }
+        return selected;
+    }
+
+    private void connect(int from, int to, int layer) {
+        int[] current = links[from][layer];
+        int limit = layer == 0 ? maxLinksLayer0 : m;
+        if (current.length < limit) {
+            int[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = to;
+            links[from][layer] = grown;
+            return;
+        }
+        float[] base = vectors[from];
+        long[] candidates = new long[current.length + 1];
+        for (int i = 0; i < current.length; i++) {
+            candidates[i] = key(distance(base, current[i]), current[i]);
+        }
+        candidates[current.length] = key(distance(base, to), to);
+        Arrays.sort(candidates);
+        links[from][layer] = selectNeighbours(base, candidates, limit);
+    }
+
+    private float distance(float[] query, int node) {
+        return Math.max(0, 1 - VectorIndex.dot(vectors[node], 0, query, dimension));
+    }
+
+    // Non-negative floats order like their bit patterns, so (distance, node) packs into a sortable long
+    private static long key(float distance, int node) {
+        return ((long) Float.floatToIntBits(distance) << 32) | node;
+    }
+
+    private static int nodeOf(long key) {
+        return (int) key;
+    }
+
+    private static float distanceOf(long key) {
+        return Float.intBitsToFloat((int) (key >>> 32));
+    }
+}
@@ -0,0 +1,161 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive substring search over user names, answered from memory. Every name is
+ * split into trigrams with a posting list of user ids per trigram; a query intersects the
+ * lists of its own trigrams and then confirms each candidate with a real substring check,
+ * so trigram hash collisions never leak into results.
+ */
+@Component
+public class NameTrigramIndex implements UserChangeListener {
+
+    private final IntObjectHashMap<String> namesById = new IntObjectHashMap<>();
+    private final IntObjectHashMap<SortedIntList> postings = new IntObjectHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Ranked matches for {@code query}: names starting with it first, then names with a word
+     * starting with it, then by match position, name length and id.
+     *
+     * @return the total number of matches and the ids on the requested page
+     */
+    public SearchHits search(String query, int page, int size) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return new SearchHits(0, new int[0]);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (needle.length() < 3) {
+                // Too short for trigrams; a scan of the in-memory names is still cheaper than SQL
+                namesById.forEach((id, name) -> addIfMatches(matches, id, name, needle));
+            } else {
+                collectCandidates(needle, matches);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt(Match::rank)
+                .thenComparingInt(Match::position)
+                .thenComparingInt(Match::length)
+                .thenComparingInt(Match::id));
+
+        int from = (int) Math.min((long) page * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+        int[] ids = new int[to - from];
+        for (int i = from; i < to; i++) {
+            ids[i - from] = matches.get(i).id();
+        }
+        return new SearchHits(matches.size(), ids);
+    }
+
+    @Override
+    public void onUserSaved(User user) {
+        String name = normalize(user.getName());
+        lock.writeLock().lock();
+        try {
+            String previous = namesById.put(user.getId(), name);
+            if (previous != null) {
+                unlink(user.getId(), previous);
+            }
+            for (int trigram : trigrams(name)) {
+                SortedIntList ids = postings.get(trigram);
+                if (ids == null) {
+                    ids = new SortedIntList();
+                    postings.put(trigram, ids);
+                }
+                ids.add(user.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUserDeleted(int id) {
+        lock.writeLock().lock();
+        try {
+            String previous = namesById.remove(id);
+            if (previous != null) {
+                unlink(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void collectCandidates(String needle, List<Match> matches) {
+        int[] grams = trigrams(needle);
+        SortedIntList[] lists = new SortedIntList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        // Walk the shortest list and probe the others
+        Arrays.sort(lists, Comparator.comparingInt(SortedIntList::size));
+        SortedIntList smallest = lists[0];
+        for (int i = 0; i < smallest.size(); i++) {
+            int id = smallest.get(i);
+            boolean inAll = true;
+            for (int j = 1; j < lists.length && inAll; j++) {
+                inAll = lists[j].contains(id);
+            }
+            if (inAll) {
+                addIfMatches(matches, id, namesById.get(id), needle);
+            }
+        }
+    }
+
+    private static void addIfMatches(List<Match> matches, int id, String name, String needle) {
+        int position = name.indexOf(needle);
+        if (position < 0) {
+            return;
+        }
+        int rank = position == 0 ? 0 : Character.isLetterOrDigit(name.charAt(position - 1)) ? 2 : 1;
+        matches.add(new Match(id, rank, position, name.length()));
+    }
+
+    private void unlink(int id, String name) {
+        for (int trigram : trigrams(name)) {
+            SortedIntList ids = postings.get(trigram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct trigram keys of a normalized string; three 10-bit char codes packed into one int
+    static int[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new int[0];
+        }
+        int[] grams = new int[text.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (text.charAt(i) & 0x3FF) << 20 | (text.charAt(i + 1) & 0x3FF) << 10 | (text.charAt(i + 2) & 0x3FF);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    public record SearchHits(int total, int[] ids) {
+    }
+
+    private record Match(int id, int rank, int position, int length) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.svipb.pam.index;
+
+import java.time.Instant;
+
+/**
+ * State of one (port, user) pair as of a checkpoint.
+ *
+ * @param enteredAt when the user entered, or null when the user is no longer inside
+ */
+public record OccupancyChange(String port, int userId, Instant enteredAt) {
+
+    public boolean inside() {
+        return enteredAt != null;
+    }
+}
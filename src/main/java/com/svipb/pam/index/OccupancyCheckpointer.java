@@ -0,0 +1,114 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.OccupancyEntry;
+import com.svipb.pam.repository.OccupancyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persists {@link OccupancyTracker} on a schedule instead of per scan: every interval the
+ * pairs changed since the last checkpoint are rewritten in one transaction. Restores the last
+ * checkpoint before the web server starts and writes a final one on shutdown, so occupancy
+ * and anti-passback survive a restart; at most one interval of scans is lost on a crash.
+ */
+@Component
+public class OccupancyCheckpointer implements SmartInitializingSingleton, SmartLifecycle {
+
+    private final OccupancyRepository occupancyRepository;
+    private final OccupancyTracker occupancyTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final long intervalNanos;
+    private final Lock checkpointLock = new ReentrantLock();
+    private final Logger logger = LoggerFactory.getLogger(OccupancyCheckpointer.class);
+
+    private volatile boolean running;
+    private Thread checkpointThread;
+
+    public OccupancyCheckpointer(OccupancyRepository occupancyRepository, OccupancyTracker occupancyTracker,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${pam.occupancy.checkpoint-interval-ms:5000}") long intervalMs) {
+        this.occupancyRepository = occupancyRepository;
+        this.occupancyTracker = occupancyTracker;
+        // Not read-only on purpose: the restore must read the primary, not a lagging replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<OccupancyEntry> entries = transactionTemplate.execute(status -> occupancyRepository.findAll());
+        entries.forEach(entry -> occupancyTracker.restore(entry.getPort(), entry.getUserId(), entry.getEnteredAt()));
+        logger.atInfo().addKeyValue("occupants", entries.size()).log("Restored occupancy checkpoint");
+    }
+
+    /**
+     * Writes the pairs changed since the previous checkpoint.
+     *
+     * @return the number of pairs written
+     */
+    public int checkpoint() {
+        // A lock rather than synchronized, so a caller on a virtual thread never pins its carrier over JDBC
+        checkpointLock.lock();
+        try {
+            List<OccupancyChange> changes = occupancyTracker.drainChanges();
+            if (changes.isEmpty()) {
+                return 0;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> occupancyRepository.applyChanges(changes));
+                return changes.size();
+            } catch (RuntimeException e) {
+                occupancyTracker.requeue(changes);
+                logger.error("Failed to checkpoint {} occupancy changes", changes.size(), e);
+                return 0;
+            }
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        checkpointThread = new Thread(this::checkpointLoop, "occupancy-checkpoint");
+        checkpointThread.setDaemon(true);
+        checkpointThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(checkpointThread);
+        try {
+            checkpointThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void checkpointLoop() {
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            checkpoint();
+        }
+        // Shutdown: one last checkpoint so a clean restart loses nothing
+        checkpoint();
+    }
+}
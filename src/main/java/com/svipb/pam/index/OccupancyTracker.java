@@ -0,0 +1,168 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Who is inside each port's zone, updated by IN/OUT scans without locks or database writes.
+ * Each zone keeps its occupants in a {@link ConcurrentHashMap}, whose atomic putIfAbsent and
+ * remove decide anti-passback: an IN while already inside is rejected. The counters are
+ * atomics, so concurrent scans at one port never serialize on a monitor.
+ * <p>
+ * Every change marks its (port, user) pair dirty; {@link OccupancyCheckpointer} drains the
+ * dirty pairs on a schedule and writes only those rows.
+ */
+@Component
+public class OccupancyTracker implements UserChangeListener {
+
+    private final ConcurrentMap<String, Zone> zones = new ConcurrentHashMap<>();
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+    private final CredentialIndex credentialIndex;
+
+    public OccupancyTracker(CredentialIndex credentialIndex) {
+        this.credentialIndex = credentialIndex;
+    }
+
+    /**
+     * Applies a scan that the access rules already admitted.
+     *
+     * @return false when an IN is a passback: the user is already inside this port's zone
+     */
+    public boolean record(String port, int userId, Direction direction, Instant at) {
+        String key = CompiledAccessRules.normalize(port);
+        if (key == null) {
+            return true;
+        }
+        Zone zone = zones.computeIfAbsent(key, name -> new Zone());
+        if (direction == Direction.IN) {
+            if (zone.occupants.putIfAbsent(userId, at) != null) {
+                zone.passbackRejected.increment();
+                return false;
+            }
+            zone.occupancy.incrementAndGet();
+            zone.entries.increment();
+        } else {
+            if (zone.occupants.remove(userId) == null) {
+                // Exits are never blocked; an unmatched one only shows up in the counters
+                zone.unmatchedExits.increment();
+                return true;
+            }
+            zone.occupancy.decrementAndGet();
+            zone.exits.increment();
+        }
+        dirty.add(new Key(key, userId));
+        return true;
+    }
+
+    // Clear a user stuck inside, e.g. after leaving without an OUT scan
+    public boolean release(String port, int userId) {
+        String key = CompiledAccessRules.normalize(port);
+        Zone zone = key == null ? null : zones.get(key);
+        if (zone == null || zone.occupants.remove(userId) == null) {
+            return false;
+        }
+        zone.occupancy.decrementAndGet();
+        dirty.add(new Key(key, userId));
+        return true;
+    }
+
+    // Startup only: reinstate a checkpointed occupant without marking it dirty
+    public void restore(String port, int userId, Instant enteredAt) {
+        Zone zone = zones.computeIfAbsent(CompiledAccessRules.normalize(port), name -> new Zone());
+        if (zone.occupants.putIfAbsent(userId, enteredAt) == null) {
+            zone.occupancy.incrementAndGet();
+        }
+    }
+
+    public List<ZoneOccupancy> zones() {
+        List<ZoneOccupancy> result = new ArrayList<>(zones.size());
+        zones.forEach((port, zone) -> result.add(zone.counters(port)));
+        result.sort(Comparator.comparing(ZoneOccupancy::port));
+        return result;
+    }
+
+    public Optional<ZoneOccupancy> zone(String port) {
+        String key = CompiledAccessRules.normalize(port);
+        Zone zone = key == null ? null : zones.get(key);
+        return zone == null ? Optional.empty() : Optional.of(zone.counters(key));
+    }
+
+    // Occupants in order of entry
+    public List<Occupant> occupants(String port) {
+        String key = CompiledAccessRules.normalize(port);
+        Zone zone = key == null ? null : zones.get(key);
+        if (zone == null) {
+            return List.of();
+        }
+        List<Occupant> result = new ArrayList<>(zone.occupancy.get());
+        zone.occupants.forEach((userId, enteredAt) -> result.add(new Occupant(userId,
+                credentialIndex.findByUserId(userId).map(AccessCredential::name).orElse(null), enteredAt)));
+        result.sort(Comparator.comparing(Occupant::enteredAt));
+        return result;
+    }
+
+    /**
+     * Current state of every pair changed since the previous drain. A pair changed again while
+     * it is being drained stays dirty and is picked up by the next drain.
+     */
+    public List<OccupancyChange> drainChanges() {
+        List<OccupancyChange> changes = new ArrayList<>();
+        for (Key key : dirty) {
+            dirty.remove(key);
+            Zone zone = zones.get(key.port);
+            Instant enteredAt = zone == null ? null : zone.occupants.get(key.userId);
+            changes.add(new OccupancyChange(key.port, key.userId, enteredAt));
+        }
+        return changes;
+    }
+
+    // Put back changes a failed checkpoint could not write
+    public void requeue(List<OccupancyChange> changes) {
+        for (OccupancyChange change : changes) {
+            dirty.add(new Key(change.port(), change.userId()));
+        }
+    }
+
+    @Override
+    public void onUserSaved(User user) {
+    }
+
+    @Override
+    public void onUserDeleted(int id) {
+        zones.forEach((port, zone) -> {
+            if (zone.occupants.remove(id) != null) {
+                zone.occupancy.decrementAndGet();
+                dirty.add(new Key(port, id));
+            }
+        });
+    }
+
+    private record Key(String port, int userId) {
+    }
+
+    private static final class Zone {
+        private final ConcurrentMap<Integer, Instant> occupants = new ConcurrentHashMap<>();
+        private final AtomicInteger occupancy = new AtomicInteger();
+        private final LongAdder entries = new LongAdder();
+        private final LongAdder exits = new LongAdder();
+        private final LongAdder passbackRejected = new LongAdder();
+        private final LongAdder unmatchedExits = new LongAdder();
+
+        private ZoneOccupancy counters(String port) {
+            return new ZoneOccupancy(port, occupancy.get(), entries.sum(), exits.sum(), passbackRejected.sum(),
+                    unmatchedExits.sum());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.svipb.pam.index;
+
+import java.time.Instant;
+
+// A user currently inside a port's zone; name is null when the user is no longer registered
+public record Occupant(int userId, String name, Instant enteredAt) {
+}
@@ -0,0 +1,66 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter bumped by every committed user write, used to build strong ETags for the listing
+ * endpoints so a poll with a matching {@code If-None-Match} is answered with 304 before any
+ * query runs. The epoch is part of the tag, so a restart never revalidates a stale copy.
+ * The counter moves only after commit; a read-only request routed to a lagging replica can
+ * still tag a slightly older page with the new version until the next write.
+ */
+@Component
+public class RosterVersion implements UserChangeListener {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Strong ETag for one representation of the roster. {@code variant} holds everything
+     * besides the URL that selects the body (page, size, filter, media type), since clients
+     * pass paging in headers and must not revalidate one page against another. The values go
+     * in length-prefixed and hashed with SHA-256, so two variants cannot share a tag by accident.
+     */
+    public String etag(Object... variant) {
+        MessageDigest digest = sha256();
+        for (Object value : variant) {
+            byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            digest.update(bytes);
+        }
+        return "\"" + Long.toString(epoch, 36) + "-" + version.get() + "-"
+                + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    @Override
+    public void onUserSaved(User user) {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void onUserDeleted(int id) {
+        version.incrementAndGet();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JDK ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
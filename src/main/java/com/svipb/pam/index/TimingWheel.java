@@ -0,0 +1,108 @@
+package com.svipb.pam.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical timing wheel for int ids: four levels of 64 slots, each slot of a level spanning
+ * one whole revolution of the level below. Scheduling is O(1), a tick looks at one slot per
+ * level at most, and an entry moves down at most three times before it fires, so expiring n
+ * entries costs O(n) no matter how their deadlines are spread. Deadlines past the top level
+ * wait in an overflow list that is re-filed once per top-level revolution. Not thread-safe;
+ * callers guard it with their own lock.
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<List<Entry>> slots = new ArrayList<>(LEVELS << SLOT_BITS);
+    private final List<Entry> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS << SLOT_BITS; i++) {
+            slots.add(new ArrayList<>(0));
+        }
+    }
+
+    /**
+     * Files {@code id} to fire on the first tick at or after {@code deadlineMillis}.
+     *
+     * @return false when that tick has already passed; the caller expires the id itself
+     */
+    boolean schedule(int id, long deadlineMillis) {
+        long tick = Math.ceilDiv(deadlineMillis, tickMillis);
+        if (tick <= currentTick) {
+            return false;
+        }
+        file(new Entry(id, tick));
+        size++;
+        return true;
+    }
+
+    // Move the wheel up to nowMillis, handing every id that comes due to expired in deadline order
+    void advance(long nowMillis, IntConsumer expired) {
+        long target = nowMillis / tickMillis;
+        if (size == 0) {
+            currentTick = Math.max(currentTick, target);
+            return;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            if ((currentTick & mask(LEVELS)) == 0) {
+                List<Entry> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                waiting.forEach(this::file);
+            }
+            // Higher levels first, so entries they hand down for this tick are cascaded again
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & mask(level)) == 0) {
+                    List<Entry> slot = slot(level, currentTick);
+                    List<Entry> cascading = new ArrayList<>(slot);
+                    slot.clear();
+                    cascading.forEach(this::file);
+                }
+            }
+            List<Entry> due = slot(0, currentTick);
+            for (Entry entry : due) {
+                expired.accept(entry.id);
+            }
+            size -= due.size();
+            due.clear();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void file(Entry entry) {
+        long delta = entry.tick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta <= mask(level + 1)) {
+                slot(level, entry.tick).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private List<Entry> slot(int level, long tick) {
+        return slots.get((level << SLOT_BITS) | (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+    }
+
+    // Ticks covered by one slot of the given level, minus one
+    private static long mask(int level) {
+        return (1L << (SLOT_BITS * level)) - 1;
+    }
+
+    private record Entry(int id, long tick) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.dto.UserFacets;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-status and per-gender user counts maintained incrementally from user writes, so
+ * dashboards read them without touching the database. Values are compared ignoring case,
+ * matching {@code UserService.filterStatus}.
+ */
+@Component
+public class UserFacetCounter implements UserChangeListener {
+
+    // Last counted (status, gender) per user id, needed to move a user between buckets on update
+    private final IntObjectHashMap<String[]> facetsById = new IntObjectHashMap<>();
+    private final Map<String, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> genderCounts = new ConcurrentHashMap<>();
+    private final AtomicLong total = new AtomicLong();
+    private final Lock writeLock = new ReentrantLock();
+
+    public UserFacets snapshot() {
+        return new UserFacets(total.get(), copy(statusCounts), copy(genderCounts));
+    }
+
+    public long countByStatus(String status) {
+        AtomicLong count = statusCounts.get(normalize(status));
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void onUserSaved(User user) {
+        String[] facets = {normalize(user.getStatus()), normalize(user.getGender())};
+        writeLock.lock();
+        try {
+            String[] previous = facetsById.put(user.getId(), facets);
+            if (previous == null) {
+                total.incrementAndGet();
+            } else {
+                decrement(statusCounts, previous[0]);
+                decrement(genderCounts, previous[1]);
+            }
+            increment(statusCounts, facets[0]);
+            increment(genderCounts, facets[1]);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void onUserDeleted(int id) {
+        writeLock.lock();
+        try {
+            String[] previous = facetsById.remove(id);
+            if (previous != null) {
+                total.decrementAndGet();
+                decrement(statusCounts, previous[0]);
+                decrement(genderCounts, previous[1]);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void increment(Map<String, AtomicLong> counts, String key) {
+        counts.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static void decrement(Map<String, AtomicLong> counts, String key) {
+        AtomicLong count = counts.get(key);
+        if (count != null && count.decrementAndGet() <= 0) {
+            counts.remove(key);
+        }
+    }
+
+    private static Map<String, Long> copy(Map<String, AtomicLong> counts) {
+        Map<String, Long> copy = new TreeMap<>();
+        counts.forEach((key, count) -> copy.put(key, count.get()));
+        return copy;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,59 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import com.svipb.pam.repository.UserRepository;
+import com.svipb.pam.service.UserChangeListener;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Replays the users table into every {@link UserChangeListener} once all singletons are
+ * ready, which is before the web server starts taking requests.
+ */
+@Component
+public class UserIndexInitializer implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+    private final List<UserChangeListener> listeners;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Logger logger = LoggerFactory.getLogger(UserIndexInitializer.class);
+
+    public UserIndexInitializer(UserRepository userRepository, List<UserChangeListener> listeners,
+                                EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.listeners = listeners;
+        this.entityManager = entityManager;
+        // Not read-only on purpose: the indexes must be built from the primary, not a lagging replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        AtomicInteger count = new AtomicInteger();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<User> users = userRepository.streamAll()) {
+                users.forEach(user -> {
+                    for (UserChangeListener listener : listeners) {
+                        listener.onUserSaved(user);
+                    }
+                    entityManager.detach(user);
+                    count.incrementAndGet();
+                });
+            }
+        });
+        listeners.forEach(UserChangeListener::onInitialLoadComplete);
+        logger.info("Loaded {} users into {} in-memory indexes in {} ms",
+                count.get(), listeners.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
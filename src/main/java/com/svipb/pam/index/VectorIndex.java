@@ -0,0 +1,36 @@
+package com.svipb.pam.index;
+
+import java.util.List;
+
+/**
+ * Nearest-neighbour index over unit-length feature vectors, one vector per user.
+ * Not thread-safe; {@link BiometricIndex} guards it with its own lock.
+ */
+interface VectorIndex {
+
+    // Insert or replace the user's vector
+    void put(int userId, float[] vector);
+
+    void remove(int userId);
+
+    // Up to k best matches, most similar first
+    List<VectorMatch> search(float[] query, int k);
+
+    int size();
+
+    // Dot product; equals cosine similarity for unit vectors. Four accumulators let the JIT overlap the adds.
+    static float dot(float[] a, int aOffset, float[] b, int dimension) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int bound = dimension & ~3; i < bound; i += 4) {
+            s0 += a[aOffset + i] * b[i];
+            s1 += a[aOffset + i + 1] * b[i + 1];
+            s2 += a[aOffset + i + 2] * b[i + 2];
+            s3 += a[aOffset + i + 3] * b[i + 3];
+        }
+        for (; i < dimension; i++) {
+            s0 += a[aOffset + i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
@@ -0,0 +1,5 @@
+package com.svipb.pam.index;
+
+// Enrolled template closest to a probe; similarity is the cosine of the two unit vectors
+public record VectorMatch(int userId, float similarity) {
+}
@@ -0,0 +1,171 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Expires users with a {@code validUntil} from a {@link TimingWheel} instead of polling the
+ * users table. Every save files the user's deadline. When the wheel reaches it, the credential
+ * leaves {@link CredentialIndex}, so gate controllers see the removal in their next delta, and
+ * the id waits in a queue for the batched purge. A changed or removed deadline leaves the old
+ * wheel entry in place; that entry is ignored when it fires.
+ */
+@Component
+public class VisitorPassExpiry implements UserChangeListener, SmartLifecycle {
+
+    private final CredentialIndex credentialIndex;
+    private final TimingWheel wheel;
+    private final IntObjectHashMap<Long> deadlines = new IntObjectHashMap<>();
+    private final Queue<Integer> expired = new ConcurrentLinkedQueue<>();
+    private final long tickNanos;
+    private final Lock lock = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread tickThread;
+
+    @Autowired
+    public VisitorPassExpiry(CredentialIndex credentialIndex, @Value("${pam.visitor-passes.tick-ms:1000}") long tickMs) {
+        this(credentialIndex, tickMs, System.currentTimeMillis());
+    }
+
+    VisitorPassExpiry(CredentialIndex credentialIndex, long tickMs, long nowMillis) {
+        this.credentialIndex = credentialIndex;
+        this.wheel = new TimingWheel(tickMs, nowMillis);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+    }
+
+    @Override
+    public void onUserSaved(User user) {
+        Instant validUntil = user.getValidUntil();
+        lock.lock();
+        try {
+            if (validUntil == null) {
+                deadlines.remove(user.getId());
+                return;
+            }
+            long deadline = validUntil.toEpochMilli();
+            Long previous = deadlines.put(user.getId(), deadline);
+            if (previous != null && previous == deadline) {
+                // Most saves leave the pass alone; keep the entry already on the wheel
+                return;
+            }
+            if (deadline <= System.currentTimeMillis() || !wheel.schedule(user.getId(), deadline)) {
+                // Already lapsed: CredentialIndex skips it on save, so only the purge is left
+                deadlines.remove(user.getId());
+                expired.add(user.getId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onUserDeleted(int id) {
+        lock.lock();
+        try {
+            deadlines.remove(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Expire every pass whose deadline is at or before nowMillis
+    void advance(long nowMillis) {
+        List<Integer> due = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advance(nowMillis, id -> {
+                Long deadline = deadlines.get(id);
+                if (deadline != null && deadline <= nowMillis) {
+                    deadlines.remove(id);
+                    due.add(id);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+        for (int id : due) {
+            lock.lock();
+            try {
+                // An extension committed since the wheel fired has filed a new deadline; leave its credential alone.
+                // One whose deadline is not filed yet is already re-indexed, and expire() checks the indexed window.
+                if (deadlines.get(id) == null) {
+                    credentialIndex.expire(id, nowMillis);
+                    expired.add(id);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Ids expired since the last drain, for the purge to confirm against the database
+    public List<Integer> drainExpired() {
+        List<Integer> ids = new ArrayList<>();
+        Integer id;
+        while ((id = expired.poll()) != null) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    // Put back ids a failed purge could not delete
+    public void requeue(Collection<Integer> ids) {
+        expired.addAll(ids);
+    }
+
+    public int pending() {
+        lock.lock();
+        try {
+            return deadlines.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        tickThread = new Thread(this::tickLoop, "visitor-pass-expiry");
+        tickThread.setDaemon(true);
+        tickThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(tickThread);
+        try {
+            tickThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void tickLoop() {
+        while (running) {
+            LockSupport.parkNanos(tickNanos);
+            advance(System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.svipb.pam.index;
+
+/**
+ * Live counters of one port's zone. {@code entries}, {@code exits} and the rejection counts
+ * run since startup; {@code occupancy} survives restarts through the checkpoint table.
+ *
+ * @param unmatchedExits exits by users who were not recorded inside, e.g. after tailgating in
+ */
+public record ZoneOccupancy(String port, int occupancy, long entries, long exits, long passbackRejected,
+                            long unmatchedExits) {
+}
@@ -0,0 +1,40 @@
+package com.svipb.pam.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a request is
+ * being measured by {@link SqlStatementMetricsFilter}. Statements that are answered from
+ * the second-level or query cache never reach the inspector and are not counted. Another
+ * configured inspector, if any, still sees every statement.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private final StatementInspector delegate;
+
+    public SqlStatementCounter(StatementInspector delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return delegate == null ? sql : delegate.inspect(sql);
+    }
+
+    static void begin() {
+        COUNT.set(new int[1]);
+    }
+
+    // Stop counting on this thread and return the statements seen since begin()
+    static int end() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
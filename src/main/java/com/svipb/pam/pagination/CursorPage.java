@@ -0,0 +1,24 @@
+package com.svipb.pam.pagination;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (seek) listing. There is no total count; clients follow
+ * {@code nextCursor} until {@code hasNext} is false.
+ */
+@Getter
+public class CursorPage<T> {
+    private final List<T> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
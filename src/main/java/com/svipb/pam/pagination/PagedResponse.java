@@ -1,7 +1,9 @@
 package com.svipb.pam.pagination;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
+import org.springframework.data.domain.Page;
 import org.springframework.restdocs.hypermedia.Link;
 
 import java.util.List;
@@ -14,6 +16,7 @@ public class PagedResponse <T> {
     private long totalElements;
     private int totalPages;
     private boolean last;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<Link> links;
 
     public PagedResponse(List<T> content, int page, int size, long totalElements, int totalPages, boolean last) {
@@ -25,6 +28,12 @@ public class PagedResponse <T> {
         this.last = last;
     }
 
+    // Copy a Spring Data page without its Pageable/Sort metadata, which clients never read
+    public static <T> PagedResponse<T> of(Page<T> page) {
+        return new PagedResponse<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), page.isLast());
+    }
+
     public void setContent(List<T> content) {
         this.content = content;
     }
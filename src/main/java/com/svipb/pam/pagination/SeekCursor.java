@@ -0,0 +1,50 @@
+package com.svipb.pam.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination. Holds the id of the last row and,
+ * for name-ordered listings, its name as the leading sort key.
+ */
+public record SeekCursor(String name, int id) {
+
+    private static final char SEPARATOR = ':';
+
+    public static SeekCursor afterId(int id) {
+        return new SeekCursor(null, id);
+    }
+
+    public static SeekCursor afterName(String name, int id) {
+        return new SeekCursor(name, id);
+    }
+
+    public String encode() {
+        String raw = name == null ? "i" + SEPARATOR + id : "n" + SEPARATOR + id + SEPARATOR + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static SeekCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor tidak valid");
+        }
+        try {
+            if (raw.startsWith("i" + SEPARATOR)) {
+                return afterId(Integer.parseInt(raw.substring(2)));
+            }
+            if (raw.startsWith("n" + SEPARATOR)) {
+                int end = raw.indexOf(SEPARATOR, 2);
+                return afterName(raw.substring(end + 1), Integer.parseInt(raw.substring(2, end)));
+            }
+        } catch (RuntimeException e) {
+            // fall through to the common error below
+        }
+        throw new IllegalArgumentException("Cursor tidak valid");
+    }
+}
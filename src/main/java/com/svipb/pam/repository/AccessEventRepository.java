@@ -0,0 +1,9 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.entity.AccessEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccessEventRepository extends JpaRepository<AccessEvent, Long>, AccessEventRepositoryCustom {
+}
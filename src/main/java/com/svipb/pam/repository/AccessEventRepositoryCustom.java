@@ -0,0 +1,14 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.event.AccessEventRecord;
+
+import java.util.List;
+
+public interface AccessEventRepositoryCustom {
+
+    /**
+     * Appends the events in one JDBC batch, which the MySQL driver rewrites into
+     * multi-row INSERT statements.
+     */
+    void batchInsert(List<AccessEventRecord> events);
+}
@@ -0,0 +1,38 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.event.AccessEventRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+// Spring Data picks this up as the implementation of AccessEventRepositoryCustom
+public class AccessEventRepositoryImpl implements AccessEventRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO access_events (user_id, credential_type, credential, port, direction, granted, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccessEventRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<AccessEventRecord> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            if (event.userId() == null) {
+                ps.setNull(1, Types.INTEGER);
+            } else {
+                ps.setInt(1, event.userId());
+            }
+            ps.setString(2, event.credentialType().name());
+            ps.setInt(3, event.credential());
+            ps.setString(4, event.port());
+            ps.setString(5, event.direction() == null ? null : event.direction().name());
+            ps.setBoolean(6, event.granted());
+            ps.setTimestamp(7, Timestamp.from(event.occurredAt()));
+        });
+    }
+}
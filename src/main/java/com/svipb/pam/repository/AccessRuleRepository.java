@@ -0,0 +1,9 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.entity.AccessRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccessRuleRepository extends JpaRepository<AccessRule, Long> {
+}
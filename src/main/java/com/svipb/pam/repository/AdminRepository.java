@@ -1,9 +1,18 @@
 package com.svipb.pam.repository;
 
 import com.svipb.pam.entity.Admin;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,6 +20,15 @@ public interface AdminRepository extends JpaRepository<Admin, Integer> {
 
     Optional<Admin> findById(int id);
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Admin> findAll(Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Admin findByUsername(String username);
+
+    // FOR UPDATE also locks the gap of an empty table, so two first-admin inserts cannot both see it empty
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.id from Admin a")
+    List<Integer> lockAdminIds();
 }
@@ -0,0 +1,32 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.entity.BiometricTemplate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface BiometricTemplateRepository extends JpaRepository<BiometricTemplate, Long> {
+
+    Optional<BiometricTemplate> findByUserIdAndModality(int userId, String modality);
+
+    @Modifying
+    @Query("delete from BiometricTemplate t where t.userId = :userId and t.modality = :modality")
+    int deleteByUserIdAndModality(@Param("userId") int userId, @Param("modality") String modality);
+
+    // Full scan for index loading; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from BiometricTemplate t order by t.id")
+    Stream<BiometricTemplate> streamAll();
+}
@@ -0,0 +1,9 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.entity.OccupancyEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OccupancyRepository extends JpaRepository<OccupancyEntry, Long>, OccupancyRepositoryCustom {
+}
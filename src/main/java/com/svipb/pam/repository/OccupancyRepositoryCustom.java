@@ -0,0 +1,14 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.index.OccupancyChange;
+
+import java.util.List;
+
+public interface OccupancyRepositoryCustom {
+
+    /**
+     * Deletes the row of every changed (port, user) pair and re-inserts the pairs that are
+     * still inside, as two JDBC batches. Run it inside a transaction.
+     */
+    void applyChanges(List<OccupancyChange> changes);
+}
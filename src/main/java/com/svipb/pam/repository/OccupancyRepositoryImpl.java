@@ -0,0 +1,34 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.index.OccupancyChange;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Spring Data picks this up as the implementation of OccupancyRepositoryCustom
+public class OccupancyRepositoryImpl implements OccupancyRepositoryCustom {
+
+    private static final String DELETE_SQL = "DELETE FROM occupancy WHERE port = ? AND user_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO occupancy (port, user_id, entered_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OccupancyRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void applyChanges(List<OccupancyChange> changes) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setString(1, change.port());
+            ps.setInt(2, change.userId());
+        });
+        List<OccupancyChange> inside = changes.stream().filter(OccupancyChange::inside).toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, inside, inside.size(), (ps, change) -> {
+            ps.setString(1, change.port());
+            ps.setInt(2, change.userId());
+            ps.setTimestamp(3, Timestamp.from(change.enteredAt()));
+        });
+    }
+}
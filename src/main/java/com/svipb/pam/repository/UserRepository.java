@@ -1,13 +1,43 @@
 package com.svipb.pam.repository;
 
+import com.svipb.pam.dto.UserSummary;
 import com.svipb.pam.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
+
+    // Listing queries select UserSummary rows only and are served from the query cache until a
+    // write touches the users table
+    String SUMMARY = "select new com.svipb.pam.dto.UserSummary(u.id, u.name, u.email, u.status, u.gender, u.phone, "
+            + "u.deactivated, u.validUntil, u.version) from User u";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = SUMMARY, countQuery = "select count(u) from User u")
+    Page<UserSummary> findSummaries(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SUMMARY + " where lower(u.status) = lower(:status)")
+    Slice<UserSummary> findSummariesByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query(SUMMARY + " where u.id in :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
 
     Optional<User> findByEmail(String email);
 
@@ -24,4 +54,81 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByFaceidAndIdNot(int faceid, int id);
 
     Optional<User> findByFingeridAndIdNot(int fingerid, int id);
+
+    List<User> findByEmailIn(Collection<String> emails);
+
+    // Single-statement full update, no merge SELECT; returns 0 when the id does not exist
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.version = u.version + 1, u.name = :#{#user.name}, u.email = :#{#user.email}, u.status = :#{#user.status}, "
+            + "u.gender = :#{#user.gender}, u.phone = :#{#user.phone}, u.rfid = :#{#user.rfid}, "
+            + "u.faceid = :#{#user.faceid}, u.fingerid = :#{#user.fingerid}, u.validFrom = :#{#user.validFrom}, "
+            + "u.validUntil = :#{#user.validUntil} where u.id = :#{#user.id}")
+    int updateAllFields(@Param("user") User user);
+
+    // Keyset pagination: Slice return types skip the count query
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SUMMARY + " where u.id > :id order by u.id asc")
+    Slice<UserSummary> seekAfterId(@Param("id") int id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SUMMARY + " order by u.name asc, u.id asc")
+    Slice<UserSummary> seekFirstByNameAsc(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SUMMARY + " where u.name > :name or (u.name = :name and u.id > :id) order by u.name asc, u.id asc")
+    Slice<UserSummary> seekNextByNameAsc(@Param("name") String name, @Param("id") int id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SUMMARY + " order by u.name desc, u.id desc")
+    Slice<UserSummary> seekFirstByNameDesc(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SUMMARY + " where u.name < :name or (u.name = :name and u.id < :id) order by u.name desc, u.id desc")
+    Slice<UserSummary> seekNextByNameDesc(@Param("name") String name, @Param("id") int id, Pageable pageable);
+
+    // Set-based bulk actions; callers chunk the id lists to keep IN clauses bounded
+    @Query("select u.id from User u where lower(u.status) = lower(:status) order by u.id")
+    List<Integer> findIdsByStatus(@Param("status") String status);
+
+    // Confirms expiry candidates by primary key, so purging never scans the table; blank status matches any
+    @Query("select u.id from User u where u.id in :ids and u.validUntil <= :now "
+            + "and (:status = '' or lower(u.status) = lower(:status))")
+    List<Integer> findExpiredIdsIn(@Param("ids") Collection<Integer> ids, @Param("now") Instant now,
+                                   @Param("status") String status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from User u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.deactivated = :deactivated, u.version = u.version + 1 "
+            + "where u.id in :ids and u.deactivated <> :deactivated")
+    int updateDeactivated(@Param("ids") Collection<Integer> ids, @Param("deactivated") boolean deactivated);
+
+    // Reload after a bulk UPDATE; the second-level cache still holds the old state until commit
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<User> findByIdIn(Collection<Integer> ids);
+
+    // Set-based duplicate detection for bulk import
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.rfid from User u where u.rfid in :rfids")
+    List<Integer> findExistingRfids(@Param("rfids") Collection<Integer> rfids);
+
+    @Query("select u.faceid from User u where u.faceid in :faceids")
+    List<Integer> findExistingFaceids(@Param("faceids") Collection<Integer> faceids);
+
+    @Query("select u.fingerid from User u where u.fingerid in :fingerids")
+    List<Integer> findExistingFingerids(@Param("fingerids") Collection<Integer> fingerids);
+
+    // Full-table scan for exports and index loading; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            // Keep full scans from flushing the second-level cache
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAll();
 }
@@ -0,0 +1,25 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.dto.UserPatch;
+import com.svipb.pam.entity.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Inserts the given users through JDBC batched statements. Generated ids are not
+     * written back; callers reload the rows by a unique key when they need them.
+     *
+     * @return the number of rows inserted
+     */
+    int batchInsert(List<User> users);
+
+    /**
+     * Writes the non-null fields of {@code patch} and bumps the version in one
+     * {@code UPDATE ... WHERE id = ? AND version = ?}.
+     *
+     * @return 0 if the user does not exist or its version no longer matches
+     */
+    int patch(int id, UserPatch patch);
+}
@@ -0,0 +1,99 @@
+package com.svipb.pam.repository;
+
+import com.svipb.pam.dto.UserPatch;
+import com.svipb.pam.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Spring Data picks this up as the implementation of UserRepositoryCustom
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    // Hibernate cannot batch IDENTITY inserts, so bulk enrollment goes through JDBC directly
+    private static final String INSERT_SQL =
+            "INSERT INTO users (name, email, status, gender, phone, rfid, faceid, fingerid, valid_from, valid_until, "
+                    + "deactivated, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, 0)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int batchInsert(List<User> users) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, users, BATCH_SIZE, (ps, user) -> {
+            ps.setString(1, user.getName());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getStatus());
+            ps.setString(4, user.getGender());
+            ps.setInt(5, user.getPhone());
+            ps.setInt(6, user.getRfid());
+            ps.setInt(7, user.getFaceid());
+            ps.setInt(8, user.getFingerid());
+            setInstant(ps, 9, user.getValidFrom());
+            setInstant(ps, 10, user.getValidUntil());
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // The MySQL driver reports SUCCESS_NO_INFO for rewritten multi-row inserts
+                inserted += count >= 0 ? count : 1;
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public int patch(int id, UserPatch patch) {
+        // JPQL rather than JDBC so Hibernate invalidates the cached User entries and query results
+        StringBuilder jpql = new StringBuilder("update User u set u.version = u.version + 1");
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("name", patch.name());
+        values.put("email", patch.email());
+        values.put("status", patch.status());
+        values.put("gender", patch.gender());
+        values.put("phone", patch.phone());
+        values.put("rfid", patch.rfid());
+        values.put("faceid", patch.faceid());
+        values.put("fingerid", patch.fingerid());
+        values.put("validFrom", patch.validFrom());
+        values.put("validUntil", patch.validUntil());
+        values.values().removeIf(Objects::isNull);
+        values.keySet().forEach(field -> jpql.append(", u.").append(field).append(" = :").append(field));
+        jpql.append(" where u.id = :id and u.version = :version");
+        // Patching one end of the validity window must not put it behind the stored other end
+        if (patch.validUntil() != null && patch.validFrom() == null) {
+            jpql.append(" and (u.validFrom is null or u.validFrom < :validUntil)");
+        } else if (patch.validFrom() != null && patch.validUntil() == null) {
+            jpql.append(" and (u.validUntil is null or u.validUntil > :validFrom)");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString());
+        values.forEach(query::setParameter);
+        return query.setParameter("id", id)
+                .setParameter("version", patch.version())
+                .executeUpdate();
+    }
+
+    private static void setInstant(PreparedStatement ps, int index, Instant value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.from(value));
+        }
+    }
+}
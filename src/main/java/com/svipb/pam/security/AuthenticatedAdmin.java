@@ -0,0 +1,10 @@
+package com.svipb.pam.security;
+
+import java.time.Instant;
+
+/**
+ * The admin a verified token was issued to. Stored as the {@value JwtAuthenticationFilter#ADMIN_ATTRIBUTE}
+ * request attribute for handlers that need to know who is calling.
+ */
+public record AuthenticatedAdmin(int adminId, String username, String tokenId, Instant issuedAt, Instant expiresAt) {
+}
@@ -0,0 +1,54 @@
+package com.svipb.pam.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+/**
+ * Rejects requests that do not carry the shared gate token as {@code Authorization: Bearer ...}
+ * with 401. Registered by {@code JwtAuthConfig} for the allow-list downloads
+ * ({@code /access/snapshot}, {@code /access/delta}), which hand out every credential; a single
+ * scan through {@code /access/verify} stays open. Without {@code pam.gate.token} every request
+ * is rejected.
+ */
+public class GateTokenFilter extends OncePerRequestFilter {
+
+    private final byte[] gateToken;
+
+    public GateTokenFilter(String gateToken) {
+        if (gateToken == null || gateToken.isBlank()) {
+            LoggerFactory.getLogger(GateTokenFilter.class)
+                    .warn("pam.gate.token is not set; gate controllers cannot download the credential allow-list");
+            this.gateToken = null;
+        } else {
+            this.gateToken = gateToken.trim().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<String> token = JwtAuthenticationFilter.bearerToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (gateToken != null && token.isPresent()
+                && MessageDigest.isEqual(gateToken, token.get().getBytes(StandardCharsets.UTF_8))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Token gate tidak valid.");
+    }
+}
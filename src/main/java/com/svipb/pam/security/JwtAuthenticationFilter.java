@@ -0,0 +1,78 @@
+package com.svipb.pam.security;
+
+import com.svipb.pam.service.AdminService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Rejects requests without a valid bearer token with 401. Registered for {@code /admin/*}
+ * and {@code /users/*} by {@code JwtAuthConfig}. The one exception is creating the very first
+ * admin, which has nobody to log in as yet.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String ADMIN_ATTRIBUTE = "pam.admin";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String BOOTSTRAP_PATH = "/admin/add";
+
+    private final JwtService jwtService;
+    private final AdminService adminService;
+    private volatile boolean adminExists;
+
+    public JwtAuthenticationFilter(JwtService jwtService, AdminService adminService) {
+        this.jwtService = jwtService;
+        this.adminService = adminService;
+    }
+
+    /**
+     * @return the token part of an {@code Authorization: Bearer ...} header value
+     */
+    public static Optional<String> bearerToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return Optional.empty();
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? Optional.empty() : Optional.of(token);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<AuthenticatedAdmin> admin = bearerToken(request.getHeader(HttpHeaders.AUTHORIZATION))
+                .flatMap(jwtService::verify);
+        if (admin.isPresent()) {
+            request.setAttribute(ADMIN_ATTRIBUTE, admin.get());
+            chain.doFilter(request, response);
+        } else if (isBootstrap(request)) {
+            chain.doFilter(request, response);
+        } else {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("Token tidak valid atau kedaluwarsa.");
+        }
+    }
+
+    // Only an unauthenticated request pays for this check, and only until the first admin exists
+    private boolean isBootstrap(HttpServletRequest request) {
+        if (adminExists || !HttpMethod.POST.matches(request.getMethod())
+                || !BOOTSTRAP_PATH.equals(request.getServletPath())) {
+            return false;
+        }
+        adminExists = adminService.hasAdmins();
+        return !adminExists;
+    }
+}
@@ -0,0 +1,134 @@
+package com.svipb.pam.security;
+
+import com.svipb.pam.entity.Admin;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies the HS256 tokens that guard {@code /admin/**} and {@code /users/**}.
+ * Verification needs only the signing key: no database, no password hash. A token that has
+ * been verified once is remembered in a {@link VerifiedTokenCache}, so repeat requests skip
+ * the HMAC and JSON parsing too; expiry and the {@link TokenDenyList} (single tokens and
+ * deleted admins) are still checked on every call.
+ */
+@Service
+public class JwtService {
+
+    private static final String ISSUER = "pam";
+    private static final String ADMIN_ID_CLAIM = "aid";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration ttl;
+    private final Clock clock;
+    private final VerifiedTokenCache cache;
+    private final TokenDenyList denyList = new TokenDenyList();
+
+    @Autowired
+    public JwtService(@Value("${pam.jwt.secret:}") String secret,
+                      @Value("${pam.jwt.ttl-minutes:480}") long ttlMinutes,
+                      @Value("${pam.jwt.cache-size:4096}") int cacheSize) {
+        this(signingKey(secret), Duration.ofMinutes(ttlMinutes), cacheSize, Clock.systemUTC());
+    }
+
+    JwtService(SecretKey key, Duration ttl, int cacheSize, Clock clock) {
+        this.key = key;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cache = new VerifiedTokenCache(cacheSize);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .requireIssuer(ISSUER)
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
+    }
+
+    public IssuedToken issue(Admin admin) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(ttl);
+        String token = Jwts.builder()
+                .setIssuer(ISSUER)
+                .setSubject(admin.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .claim(ADMIN_ID_CLAIM, admin.getId())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        return new IssuedToken(token, expiresAt);
+    }
+
+    /**
+     * @return empty if the token is malformed, not signed with our key, expired or revoked
+     */
+    public Optional<AuthenticatedAdmin> verify(String token) {
+        AuthenticatedAdmin admin = cache.get(token);
+        if (admin == null) {
+            try {
+                Claims claims = parser.parseClaimsJws(token).getBody();
+                admin = new AuthenticatedAdmin(claims.get(ADMIN_ID_CLAIM, Integer.class), claims.getSubject(),
+                        claims.getId(), claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant());
+            } catch (JwtException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            cache.put(token, admin);
+        }
+        if (!clock.instant().isBefore(admin.expiresAt()) || denyList.isRevoked(admin)) {
+            return Optional.empty();
+        }
+        return Optional.of(admin);
+    }
+
+    /**
+     * Denies the token for the rest of its lifetime.
+     *
+     * @return false if the token was not valid to begin with
+     */
+    public boolean revoke(String token) {
+        Optional<AuthenticatedAdmin> admin = verify(token);
+        admin.ifPresent(verified -> {
+            denyList.revoke(verified.tokenId(), verified.expiresAt(), clock.instant());
+            cache.remove(token);
+        });
+        return admin.isPresent();
+    }
+
+    /**
+     * Denies every token issued to the admin so far, for example after the admin is deleted.
+     * Tokens issued afterwards are unaffected.
+     */
+    public void revokeAdmin(int adminId) {
+        Instant now = clock.instant();
+        denyList.revokeAdmin(adminId, now, now.plus(ttl), now);
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    private static SecretKey signingKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            LoggerFactory.getLogger(JwtService.class)
+                    .warn("pam.jwt.secret is not set; using a random key, tokens will not survive a restart");
+            return Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        }
+        // Keys.hmacShaKeyFor rejects anything shorter than 256 bits
+        return Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+    }
+}
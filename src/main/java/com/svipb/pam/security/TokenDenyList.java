@@ -0,0 +1,53 @@
+package com.svipb.pam.security;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token ids revoked before their expiry, plus admins whose every token issued up to a point is
+ * revoked (the admin was deleted). An entry is only needed until the tokens it covers would have
+ * expired anyway, so expired entries are dropped whenever a new revocation comes in.
+ */
+final class TokenDenyList {
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final Map<Integer, AdminRevocation> revokedAdmins = new ConcurrentHashMap<>();
+
+    void revoke(String tokenId, Instant expiresAt, Instant now) {
+        revoked.values().removeIf(expiry -> !now.isBefore(expiry));
+        if (now.isBefore(expiresAt)) {
+            revoked.put(tokenId, expiresAt);
+        }
+    }
+
+    /**
+     * Revokes every token of the admin issued at or before {@code notBefore}; {@code until} is
+     * when the last of them expires.
+     */
+    void revokeAdmin(int adminId, Instant notBefore, Instant until, Instant now) {
+        revokedAdmins.values().removeIf(revocation -> !now.isBefore(revocation.until()));
+        if (now.isBefore(until)) {
+            revokedAdmins.put(adminId, new AdminRevocation(notBefore, until));
+        }
+    }
+
+    boolean isRevoked(AuthenticatedAdmin admin) {
+        if (!revoked.isEmpty() && revoked.containsKey(admin.tokenId())) {
+            return true;
+        }
+        if (revokedAdmins.isEmpty()) {
+            return false;
+        }
+        // Token timestamps have second precision, so one issued in the same second as the revocation is denied too
+        AdminRevocation revocation = revokedAdmins.get(admin.adminId());
+        return revocation != null && !admin.issuedAt().isAfter(revocation.notBefore());
+    }
+
+    int size() {
+        return revoked.size() + revokedAdmins.size();
+    }
+
+    private record AdminRevocation(Instant notBefore, Instant until) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.svipb.pam.security;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, direct-mapped cache of tokens whose signature has already been checked. Each
+ * token hashes to exactly one slot and a newer token simply replaces whatever was there, so
+ * the cache never grows, never locks and a lookup is one hash plus one string comparison.
+ */
+final class VerifiedTokenCache {
+
+    private record Entry(String token, AuthenticatedAdmin admin) {
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    VerifiedTokenCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    AuthenticatedAdmin get(String token) {
+        Entry entry = slots.get(slot(token));
+        return entry != null && entry.token().equals(token) ? entry.admin() : null;
+    }
+
+    void put(String token, AuthenticatedAdmin admin) {
+        slots.set(slot(token), new Entry(token, admin));
+    }
+
+    void remove(String token) {
+        int slot = slot(token);
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.token().equals(token)) {
+            slots.compareAndSet(slot, entry, null);
+        }
+    }
+
+    private int slot(String token) {
+        int h = token.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,108 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.entity.AccessRule;
+import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.index.AccessRuleEngine;
+import com.svipb.pam.repository.AccessRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admin edits to the access rules. Every committed change recompiles the whole rule set from
+ * the table into {@link AccessRuleEngine}, so gate verification only ever reads the compiled form.
+ */
+@Service
+public class AccessRuleService implements SmartInitializingSingleton {
+
+    private final AccessRuleRepository accessRuleRepository;
+    private final AccessRuleEngine accessRuleEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final Lock reloadLock = new ReentrantLock();
+    private final Logger logger = LoggerFactory.getLogger(AccessRuleService.class);
+
+    @Autowired
+    public AccessRuleService(AccessRuleRepository accessRuleRepository, AccessRuleEngine accessRuleEngine,
+                             PlatformTransactionManager transactionManager) {
+        this.accessRuleRepository = accessRuleRepository;
+        this.accessRuleEngine = accessRuleEngine;
+        // Not read-only on purpose: a recompile right after a commit must not read a lagging replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Reloads run from afterCommit, where the finished transaction is still bound to the thread
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccessRule> getRules() {
+        return accessRuleRepository.findAll(Sort.by("id"));
+    }
+
+    @Transactional
+    public AccessRule addRule(AccessRule rule) {
+        rule.setId(0);
+        AccessRule saved = accessRuleRepository.save(rule);
+        TransactionCallbacks.afterCommit(this::reload);
+        return saved;
+    }
+
+    // Replace a rule; the request must carry the version it was read at
+    @Transactional
+    public AccessRule updateRule(long id, AccessRule rule) {
+        AccessRule existing = accessRuleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Aturan tidak ditemukan dengan id: " + id));
+        if (existing.getVersion() != rule.getVersion()) {
+            throw new OptimisticLockingFailureException(
+                    "Aturan dengan id: " + id + " sudah diubah oleh admin lain, muat ulang data terlebih dahulu");
+        }
+        existing.setPort(rule.getPort());
+        existing.setStatus(rule.getStatus());
+        existing.setUserId(rule.getUserId());
+        existing.setDays(rule.getDays());
+        existing.setStartMinute(rule.getStartMinute());
+        existing.setEndMinute(rule.getEndMinute());
+        existing.setEffect(rule.getEffect());
+        existing.setDescription(rule.getDescription());
+        AccessRule saved = accessRuleRepository.saveAndFlush(existing);
+        TransactionCallbacks.afterCommit(this::reload);
+        return saved;
+    }
+
+    @Transactional
+    public void deleteRule(long id) {
+        if (!accessRuleRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Aturan tidak ditemukan dengan id: " + id);
+        }
+        accessRuleRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(this::reload);
+    }
+
+    // Serialized so two concurrent edits cannot install their snapshots out of order. A lock, not
+    // synchronized: reloads run on virtual request threads and a monitor held over JDBC pins the carrier
+    public void reload() {
+        reloadLock.lock();
+        try {
+            List<AccessRule> rules = transactionTemplate.execute(status -> accessRuleRepository.findAll());
+            accessRuleEngine.recompile(rules);
+            logger.atInfo().addKeyValue("rules", rules.size()).log("Access rules compiled");
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+}
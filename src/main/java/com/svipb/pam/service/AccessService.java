@@ -0,0 +1,133 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.dto.AccessDecision;
+import com.svipb.pam.dto.AccessVerdict;
+import com.svipb.pam.dto.BiometricMatch;
+import com.svipb.pam.event.AccessEventMetrics;
+import com.svipb.pam.event.AccessEventRecord;
+import com.svipb.pam.event.AccessEventWriter;
+import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.index.AccessCredential;
+import com.svipb.pam.index.AccessRuleEngine;
+import com.svipb.pam.index.BiometricIndex;
+import com.svipb.pam.index.CredentialDelta;
+import com.svipb.pam.index.CredentialIndex;
+import com.svipb.pam.index.CredentialSnapshot;
+import com.svipb.pam.index.CredentialType;
+import com.svipb.pam.index.Direction;
+import com.svipb.pam.index.OccupancyTracker;
+import com.svipb.pam.index.Occupant;
+import com.svipb.pam.index.VectorMatch;
+import com.svipb.pam.index.ZoneOccupancy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class AccessService {
+
+    private final CredentialIndex credentialIndex;
+    private final AccessEventWriter accessEventWriter;
+    private final BiometricIndex biometricIndex;
+    private final AccessRuleEngine accessRuleEngine;
+    private final OccupancyTracker occupancyTracker;
+    private final float minSimilarity;
+
+    @Autowired
+    public AccessService(CredentialIndex credentialIndex, AccessEventWriter accessEventWriter,
+                         BiometricIndex biometricIndex, AccessRuleEngine accessRuleEngine,
+                         OccupancyTracker occupancyTracker,
+                         @Value("${pam.biometrics.min-similarity:0.8}") float minSimilarity) {
+        this.credentialIndex = credentialIndex;
+        this.accessEventWriter = accessEventWriter;
+        this.biometricIndex = biometricIndex;
+        this.accessRuleEngine = accessRuleEngine;
+        this.occupancyTracker = occupancyTracker;
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Verify a scanned credential against the in-memory index, the compiled access rules and,
+     * when the gate reports a direction, anti-passback; never touches the database.
+     *
+     * @return empty when the credential is not registered
+     */
+    public Optional<AccessDecision> verify(CredentialType type, int credential, String port, Direction direction) {
+        Instant now = Instant.now();
+        // The validity check is exact; the expiry wheel only drops a lapsed pass from the index within a tick
+        Optional<AccessDecision> decision = credentialIndex.lookup(type, credential)
+                .filter(found -> found.validAt(now))
+                .map(found -> new AccessDecision(found, decide(found, port, direction, now)));
+        accessEventWriter.record(new AccessEventRecord(
+                decision.map(found -> found.credential().userId()).orElse(null), type, credential, port, direction,
+                decision.map(AccessDecision::granted).orElse(false), now));
+        return decision;
+    }
+
+    // 1:N identification of a face or fingerprint probe against every enrolled template
+    public Optional<BiometricMatch> identify(CredentialType type, float[] features, String port, Direction direction) {
+        Instant now = Instant.now();
+        Optional<VectorMatch> nearest = biometricIndex.identify(type, biometricIndex.unitVector(features))
+                .filter(match -> match.similarity() >= minSimilarity);
+        // Deactivated or deleted users and lapsed passes are denied like strangers
+        Optional<BiometricMatch> match = nearest.flatMap(found -> credentialIndex.findByUserId(found.userId())
+                .filter(credential -> credential.validAt(now))
+                .map(credential -> new BiometricMatch(credential, found.similarity(),
+                        decide(credential, port, direction, now))));
+        accessEventWriter.record(new AccessEventRecord(
+                match.map(found -> found.credential().userId()).orElse(null), type,
+                match.map(found -> found.credential().credential(type)).orElse(0), port, direction,
+                match.map(BiometricMatch::granted).orElse(false), now));
+        return match;
+    }
+
+    // Occupancy only moves for scans the rules admit, so a denied IN never counts as being inside
+    private AccessVerdict decide(AccessCredential credential, String port, Direction direction, Instant now) {
+        if (!accessRuleEngine.allows(port, credential, now)) {
+            return AccessVerdict.RULE_DENIED;
+        }
+        if (direction != null && !occupancyTracker.record(port, credential.userId(), direction, now)) {
+            return AccessVerdict.PASSBACK_DENIED;
+        }
+        return AccessVerdict.GRANTED;
+    }
+
+    // Live counters of every port that has seen a directional scan
+    public List<ZoneOccupancy> getOccupancy() {
+        return occupancyTracker.zones();
+    }
+
+    public Optional<ZoneOccupancy> getZoneOccupancy(String port) {
+        return occupancyTracker.zone(port);
+    }
+
+    // Who is inside a port's zone, oldest entry first
+    public List<Occupant> getOccupants(String port) {
+        return occupancyTracker.occupants(port);
+    }
+
+    // Let a user stuck inside (left without an OUT scan) enter again
+    public void releaseOccupant(String port, int userId) {
+        if (!occupancyTracker.release(port, userId)) {
+            throw new ResourceNotFoundException("User dengan id: " + userId + " tidak tercatat di dalam port: " + port);
+        }
+    }
+
+    // Full credential roster for gate controllers
+    public CredentialSnapshot getSnapshot() {
+        return credentialIndex.snapshot();
+    }
+
+    // Credential changes since a version the gate controller already holds
+    public Optional<CredentialDelta> getDelta(long epoch, long since) {
+        return credentialIndex.changesSince(epoch, since);
+    }
+
+    public AccessEventMetrics getEventMetrics() {
+        return accessEventWriter.metrics();
+    }
+}
@@ -3,27 +3,76 @@ package com.svipb.pam.service;
 import com.svipb.pam.entity.Admin;
 import com.svipb.pam.exception.ResourceNotFoundException;
 import com.svipb.pam.repository.AdminRepository;
+import com.svipb.pam.security.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Optional;
 
 @Service
 public class AdminService {
 
+    private static final String UNKNOWN_ADMIN_HASH = new BCryptPasswordEncoder().encode("unknown admin");
+
     private final AdminRepository adminRepository;
+    private final JwtService jwtService;
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final Logger logger = LoggerFactory.getLogger(AdminService.class);
 
-    public AdminService(@Autowired AdminRepository adminRepository) {
+    public AdminService(@Autowired AdminRepository adminRepository, @Autowired JwtService jwtService) {
         this.adminRepository = adminRepository;
+        this.jwtService = jwtService;
+    }
+
+    // Check login credentials; the only point where authentication reads the database. Runs once per
+    // token issued, so the BCrypt cost is paid at login and never per request
+    @Transactional
+    public Optional<Admin> authenticate(String username, String password) {
+        if (username == null || password == null) {
+            return Optional.empty();
+        }
+        Admin admin = adminRepository.findByUsername(username);
+        if (admin == null || admin.getPassword() == null) {
+            // Same cost as a wrong password, so response times do not reveal which usernames exist
+            passwordEncoder.matches(password, UNKNOWN_ADMIN_HASH);
+            return Optional.empty();
+        }
+        if (isHashed(admin.getPassword())) {
+            return passwordEncoder.matches(password, admin.getPassword()) ? Optional.of(admin) : Optional.empty();
+        }
+        // Rows written before passwords were hashed: compare once, then store the hash in their place
+        if (!MessageDigest.isEqual(admin.getPassword().getBytes(StandardCharsets.UTF_8),
+                password.getBytes(StandardCharsets.UTF_8))) {
+            return Optional.empty();
+        }
+        admin.setPassword(passwordEncoder.encode(password));
+        logger.atInfo().addKeyValue("username", username).log("Plaintext admin password replaced by its hash");
+        return Optional.of(admin);
+    }
+
+    private static boolean isHashed(String password) {
+        return password.startsWith("$2a$") || password.startsWith("$2b$") || password.startsWith("$2y$");
+    }
+
+    public boolean hasAdmins() {
+        return adminRepository.count() > 0;
     }
 
     // Retrieve Admin Data
+    @Transactional(readOnly = true)
     public Page<Admin> retrieveAdminData(int page, int size) {
         try {
-            System.out.println("Retrieving Admin Data");
+            logger.atDebug().addKeyValue("page", page).addKeyValue("size", size).log("Retrieving admin data");
 
             // Create a sort object with the "username" property and specify ascending order
             Sort sort = Sort.by(Sort.Order.asc("username"));
@@ -37,10 +86,12 @@ public class AdminService {
     }
 
     // Add Admin Data
+    @Transactional
     public Admin addAdminData(Admin admin) {
         try {
-            System.out.println("Adding Admin Data");
-            // Save the admin data
+            logger.atInfo().addKeyValue("username", admin.getUsername()).log("Adding admin data");
+            // Save the admin data with the password hashed
+            admin.setPassword(passwordEncoder.encode(admin.getPassword()));
             return adminRepository.save(admin);
         } catch (Exception e) {
             // Log the exception or rethrow as a more specific exception if necessary
@@ -48,12 +99,25 @@ public class AdminService {
         }
     }
 
+    // Add the very first Admin without a token; the emptiness check and the insert share one locked transaction
+    @Transactional
+    public Admin addFirstAdmin(Admin admin) {
+        if (!adminRepository.lockAdminIds().isEmpty()) {
+            throw new IllegalStateException("Admin sudah ada; login untuk menambah admin.");
+        }
+        logger.atInfo().addKeyValue("username", admin.getUsername()).log("Adding first admin");
+        admin.setPassword(passwordEncoder.encode(admin.getPassword()));
+        return adminRepository.save(admin);
+    }
+
     // Update Admin Data
+    @Transactional
     public String updateAdmin(Admin admin) {
         Optional<Admin> existingAdminOptional = adminRepository.findById(admin.getId());
 
         if (existingAdminOptional.isPresent()) {
             Admin existingAdmin = existingAdminOptional.get();
+            admin.setPassword(passwordEncoder.encode(admin.getPassword()));
             adminRepository.save(admin);
             return "Berhasil mengupdate admin";
         } else {
@@ -63,12 +127,15 @@ public class AdminService {
 
     // Delete Admin Data
 
+    @Transactional
     public String deleteAdmin(int id) {
         try {
             Optional<Admin> adminOptional = adminRepository.findById(id);
 
             if (adminOptional.isPresent()) {
                 adminRepository.deleteById(id);
+                // Tokens are verified without the database, so the deleted admin's tokens are revoked explicitly
+                TransactionCallbacks.afterCommit(() -> jwtService.revokeAdmin(id));
                 return "Berhasil menghapus admin";
             } else {
                 throw new ResourceNotFoundException("Admin tidak ditemukan dengan id: " + id);
@@ -80,6 +147,7 @@ public class AdminService {
     }
 
     // Get Admin Data by Username
+    @Transactional(readOnly = true)
     public Admin getAdminByUsername(String username) {
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
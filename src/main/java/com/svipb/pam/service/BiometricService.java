@@ -0,0 +1,73 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.entity.BiometricTemplate;
+import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.index.BiometricIndex;
+import com.svipb.pam.index.CredentialType;
+import com.svipb.pam.repository.BiometricTemplateRepository;
+import com.svipb.pam.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Locale;
+
+@Service
+public class BiometricService {
+
+    private final BiometricTemplateRepository templateRepository;
+    private final UserRepository userRepository;
+    private final BiometricIndex biometricIndex;
+    private final Logger logger = LoggerFactory.getLogger(BiometricService.class);
+
+    @Autowired
+    public BiometricService(BiometricTemplateRepository templateRepository, UserRepository userRepository,
+                            BiometricIndex biometricIndex) {
+        this.templateRepository = templateRepository;
+        this.userRepository = userRepository;
+        this.biometricIndex = biometricIndex;
+    }
+
+    // Parse FACEID/FINGERID (also "face"/"finger"); RFID has no template
+    public CredentialType modality(String type) {
+        String name = type == null ? "" : type.trim().toUpperCase(Locale.ROOT);
+        CredentialType modality = switch (name) {
+            case "FACE", "FACEID" -> CredentialType.FACEID;
+            case "FINGER", "FINGERID" -> CredentialType.FINGERID;
+            default -> null;
+        };
+        if (modality == null || !biometricIndex.supports(modality)) {
+            throw new IllegalArgumentException("Tipe biometrik tidak dikenal: " + type);
+        }
+        return modality;
+    }
+
+    // Enroll or replace the user's template; the index picks it up once the row is committed
+    @Transactional
+    public void enroll(int userId, CredentialType modality, float[] features) {
+        float[] unit = biometricIndex.unitVector(features);
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User tidak ditemukan dengan id: " + userId);
+        }
+        BiometricTemplate template = templateRepository.findByUserIdAndModality(userId, modality.name())
+                .orElseGet(BiometricTemplate::new);
+        template.setUserId(userId);
+        template.setModality(modality.name());
+        template.setFeatures(unit);
+        template.setEnrolledAt(Instant.now());
+        templateRepository.save(template);
+        TransactionCallbacks.afterCommit(() -> biometricIndex.enroll(modality, userId, unit));
+        logger.atInfo().addKeyValue("userId", userId).addKeyValue("modality", modality).log("Biometric template enrolled");
+    }
+
+    @Transactional
+    public void removeTemplate(int userId, CredentialType modality) {
+        if (templateRepository.deleteByUserIdAndModality(userId, modality.name()) == 0) {
+            throw new ResourceNotFoundException("Template tidak ditemukan untuk user dengan id: " + userId);
+        }
+        TransactionCallbacks.afterCommit(() -> biometricIndex.remove(modality, userId));
+    }
+}
@@ -0,0 +1,46 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.dto.CacheStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class CacheService {
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public CacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Drop cached query results after a write that bypassed Hibernate (plain JDBC), since
+     * Hibernate only invalidates query results for writes it executes itself.
+     */
+    public void evictQueryResultsAfterCommit() {
+        TransactionCallbacks.afterCommit(() -> sessionFactory.getCache().evictQueryRegions());
+    }
+
+    // Hit/miss counters for the query cache and every second-level cache region
+    public CacheStatistics getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, CacheStatistics.Region> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, new CacheStatistics.Region(region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+        return new CacheStatistics(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(), regions);
+    }
+}
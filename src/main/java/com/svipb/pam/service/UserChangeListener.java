@@ -0,0 +1,19 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.entity.User;
+
+/**
+ * Callback for in-memory structures that mirror the users table. {@link UserService}
+ * invokes it once the surrounding transaction has committed, and the startup loader
+ * replays every existing row through {@link #onUserSaved(User)}.
+ */
+public interface UserChangeListener {
+
+    void onUserSaved(User user);
+
+    void onUserDeleted(int id);
+
+    // Called once the startup loader has replayed every existing row
+    default void onInitialLoadComplete() {
+    }
+}
@@ -0,0 +1,37 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.entity.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Fans user writes out to every {@link UserChangeListener}. Notifications are deferred
+ * until the current transaction commits so a rolled-back write never reaches an index.
+ */
+@Component
+public class UserChangePublisher {
+
+    private final List<UserChangeListener> listeners;
+
+    public UserChangePublisher(List<UserChangeListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    public void publishSaved(User user) {
+        TransactionCallbacks.afterCommit(() -> listeners.forEach(listener -> listener.onUserSaved(user)));
+    }
+
+    public void publishSaved(Collection<User> users) {
+        TransactionCallbacks.afterCommit(() -> users.forEach(user -> listeners.forEach(listener -> listener.onUserSaved(user))));
+    }
+
+    public void publishDeleted(int id) {
+        TransactionCallbacks.afterCommit(() -> listeners.forEach(listener -> listener.onUserDeleted(id)));
+    }
+
+    public void publishDeleted(Collection<Integer> ids) {
+        TransactionCallbacks.afterCommit(() -> ids.forEach(id -> listeners.forEach(listener -> listener.onUserDeleted(id))));
+    }
+}
@@ -1,52 +1,148 @@
 package com.svipb.pam.service;
 
+import com.svipb.pam.dto.BulkActionReport;
+import com.svipb.pam.dto.BulkImportReport;
+import com.svipb.pam.dto.BulkImportResult;
+import com.svipb.pam.dto.UserFacets;
+import com.svipb.pam.dto.UserPatch;
+import com.svipb.pam.dto.UserSelection;
+import com.svipb.pam.dto.UserSummary;
+import com.svipb.pam.dto.UserExportFormat;
 import com.svipb.pam.entity.User;
 import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.index.NameTrigramIndex;
+import com.svipb.pam.index.UserFacetCounter;
+import com.svipb.pam.pagination.CursorPage;
+import com.svipb.pam.pagination.PagedResponse;
+import com.svipb.pam.pagination.SeekCursor;
 import com.svipb.pam.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.jpa.SpecHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final String CSV_HEADER = "id,name,email,status,gender,phone,rfid,faceid,fingerid\n";
+
     // Inject the UserRepository
     private final UserRepository userRepository;
+    private final UserChangePublisher changePublisher;
+    private final NameTrigramIndex nameIndex;
+    private final UserFacetCounter facetCounter;
+    private final CacheService cacheService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final UserWriteMode writeMode;
     private final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserChangePublisher changePublisher, NameTrigramIndex nameIndex,
+                       UserFacetCounter facetCounter, CacheService cacheService, Validator validator,
+                       EntityManager entityManager, ObjectMapper objectMapper,
+                       @Value("${pam.users.write-mode:optimistic}") UserWriteMode writeMode) {
         this.userRepository = userRepository;
+        this.changePublisher = changePublisher;
+        this.nameIndex = nameIndex;
+        this.facetCounter = facetCounter;
+        this.cacheService = cacheService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.writeMode = writeMode;
     }
 
     // Retrieve all Users
-    public Page<User> getAllUsersWithPagination(int page, int size) {
+    @Transactional(readOnly = true)
+    public PagedResponse<UserSummary> getAllUsersWithPagination(int page, int size) {
         // Create a PageRequest with the given page, size, and sorting (if needed)
         PageRequest pageRequest = PageRequest.of(page, size);
 
-        // Use the findAll method with pagination
-        return userRepository.findAll(pageRequest);
+        // Select only the listing columns with pagination
+        return PagedResponse.of(userRepository.findSummaries(pageRequest));
+    }
+
+    // Retrieve one User with every field, including credentials
+    @Transactional(readOnly = true)
+    public User getUser(int id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User tidak ditemukan dengan id: " + id));
     }
 
-    // Add User
+    // Retrieve all Users by keyset: pages after the cursor's id, no count query
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummary> seekAllUsers(String cursor, int size) {
+        int afterId = cursor == null ? 0 : SeekCursor.decode(cursor).id();
+        Slice<UserSummary> slice = userRepository.seekAfterId(afterId, PageRequest.of(0, size));
+        return toCursorPage(slice, size, user -> SeekCursor.afterId(user.id()));
+    }
+
+    // Sort Users by Name using keyset pagination on (name, id)
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummary> seekUsersByName(String cursor, int size, boolean ascending) {
+        PageRequest limit = PageRequest.of(0, size);
+        Slice<UserSummary> slice;
+        if (cursor == null) {
+            slice = ascending ? userRepository.seekFirstByNameAsc(limit) : userRepository.seekFirstByNameDesc(limit);
+        } else {
+            SeekCursor after = SeekCursor.decode(cursor);
+            if (after.name() == null) {
+                throw new IllegalArgumentException("Cursor tidak valid untuk urutan nama");
+            }
+            slice = ascending
+                    ? userRepository.seekNextByNameAsc(after.name(), after.id(), limit)
+                    : userRepository.seekNextByNameDesc(after.name(), after.id(), limit);
+        }
+        return toCursorPage(slice, size, user -> SeekCursor.afterName(user.name(), user.id()));
+    }
+
+    private static CursorPage<UserSummary> toCursorPage(Slice<UserSummary> slice, int size,
+                                                        Function<UserSummary, SeekCursor> cursorOf) {
+        List<UserSummary> content = slice.getContent();
+        String next = slice.hasNext() && !content.isEmpty()
+                ? cursorOf.apply(content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(content, size, slice.hasNext(), next);
+    }
+
+    // Add User; in OPTIMISTIC mode the INSERT is the only statement and the unique constraints do the checking
     @Transactional
     public String addUser(User user) {
         try {
-            checkDuplicateKeysForAdd(user);
-            userRepository.save(user);
+            if (writeMode == UserWriteMode.CHECKED) {
+                checkDuplicateKeysForAdd(user);
+            }
+            User saved = userRepository.save(user);
+            changePublisher.publishSaved(saved);
             return "Berhasil menambahkan user";
         } catch (DuplicateKeyException e) {
             throw e;
         } catch (DataIntegrityViolationException e) {
+            handleDuplicateKeyException(e, user);
             handleDataIntegrityViolationException(e);
             throw new RuntimeException("Failed to add user: " + e.getMessage());
         } catch (Exception e) {
@@ -56,16 +152,26 @@ public class UserService {
     }
 
 
-    // Update User
+    // Update User with a single UPDATE statement; CHECKED mode looks for duplicates and the row first
     @Transactional
     public String updateUser(User user) {
         try {
-            // Check for duplicate entries
-            checkDuplicateKeysForUpdate(user);
-            userRepository.save(user);
+            if (writeMode == UserWriteMode.CHECKED) {
+                checkDuplicateKeysForUpdate(user);
+            }
+            if (userRepository.updateAllFields(user) == 0) {
+                throw new ResourceNotFoundException("There's no such data exist.");
+            }
+            // Publish the stored row, not the request body: the body carries neither the current
+            // version nor the columns a PUT does not write, such as deactivated
+            changePublisher.publishSaved(reload(user.getId()));
             return "Berhasil mengupdate user";
-        } catch (DuplicateKeyException e) {
+        } catch (DuplicateKeyException | ResourceNotFoundException e) {
             throw e;
+        } catch (DataIntegrityViolationException e) {
+            handleDuplicateKeyException(e, user);
+            handleDataIntegrityViolationException(e);
+            throw new RuntimeException("Failed to update user: " + e.getMessage());
         } catch (Exception e) {
             Optional<User> existingUser = userRepository.findByEmailAndIdNot(user.getEmail(), user.getId());
             existingUser.ifPresent(existing -> {
@@ -79,13 +185,262 @@ public class UserService {
         }
     }
 
+    // Patch only the supplied fields, guarded by the version the client last read
+    @Transactional
+    public User patchUser(int id, UserPatch patch) {
+        if (patch.version() == null) {
+            throw new IllegalArgumentException("Versi wajib diisi");
+        }
+        if (!patch.hasChanges()) {
+            throw new IllegalArgumentException("Tidak ada data yang diubah");
+        }
+        String violations = patchViolations(patch);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations);
+        }
+
+        try {
+            if (userRepository.patch(id, patch) == 0) {
+                // Only the failure path pays for telling "gone", "changed" and "window inverted" apart
+                User current = reload(id);
+                entityManager.detach(current);
+                String window = current.getVersion() == patch.version()
+                        ? validityWindowViolations(patch.applyTo(current)) : "";
+                if (!window.isEmpty()) {
+                    throw new IllegalArgumentException(window);
+                }
+                throw new OptimisticLockingFailureException(
+                        "User dengan id: " + id + " sudah diubah oleh admin lain, muat ulang data terlebih dahulu");
+            }
+        } catch (DataIntegrityViolationException e) {
+            handleDuplicateKeyException(e, patch.applyTo(new User()));
+            handleDataIntegrityViolationException(e);
+            throw new RuntimeException("Failed to update user: " + e.getMessage());
+        }
+
+        // The in-memory indexes need the whole row, not just the patched columns
+        User patched = reload(id);
+        changePublisher.publishSaved(patched);
+        return patched;
+    }
+
+    // Read a just-updated row from the database: the second-level cache entry is only
+    // invalidated once this transaction completes
+    private User reload(int id) {
+        User user = entityManager.find(User.class, id,
+                Map.of(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS));
+        if (user == null) {
+            throw new ResourceNotFoundException("User tidak ditemukan dengan id: " + id);
+        }
+        return user;
+    }
+
+    // Run the User bean-validation rules against just the fields a patch supplies; a window with only one
+    // end supplied is checked against the stored other end by the UPDATE itself
+    private String patchViolations(UserPatch patch) {
+        Map<String, Object> supplied = new LinkedHashMap<>();
+        supplied.put("name", patch.name());
+        supplied.put("email", patch.email());
+        supplied.put("status", patch.status());
+        supplied.put("gender", patch.gender());
+        String violations = supplied.entrySet().stream()
+                .filter(field -> field.getValue() != null)
+                .flatMap(field -> validator.validateValue(User.class, field.getKey(), field.getValue()).stream())
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+        String window = validityWindowViolations(patch.applyTo(new User()));
+        return violations.isEmpty() || window.isEmpty() ? violations + window : violations + ", " + window;
+    }
+
+    private String validityWindowViolations(User user) {
+        return validator.validateProperty(user, "validityWindowOrdered").stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+    }
+
+    // Bulk Import Users
+    @Transactional
+    public BulkImportReport importUsers(List<User> users) {
+        BulkImportResult[] results = new BulkImportResult[users.size()];
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> batchEmails = new HashSet<>();
+        Set<Integer> batchRfids = new HashSet<>();
+        Set<Integer> batchFaceids = new HashSet<>();
+        Set<Integer> batchFingerids = new HashSet<>();
+
+        // Validate rows and reject collisions inside the batch itself
+        for (int row = 0; row < users.size(); row++) {
+            User user = users.get(row);
+            Set<ConstraintViolation<User>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining(", "));
+                results[row] = rejected(row, user, BulkImportResult.Status.INVALID, message);
+                continue;
+            }
+
+            String conflict = batchEmails.contains(normalizeEmail(user.getEmail())) ? "Email already exists in batch"
+                    : batchRfids.contains(user.getRfid()) ? "RFID " + user.getRfid() + " already exists in batch"
+                    : batchFaceids.contains(user.getFaceid()) ? "FaceID " + user.getFaceid() + " already exists in batch"
+                    : batchFingerids.contains(user.getFingerid()) ? "FingerID " + user.getFingerid() + " already exists in batch"
+                    : null;
+            if (conflict != null) {
+                results[row] = rejected(row, user, BulkImportResult.Status.DUPLICATE, conflict);
+                continue;
+            }
+            batchEmails.add(normalizeEmail(user.getEmail()));
+            batchRfids.add(user.getRfid());
+            batchFaceids.add(user.getFaceid());
+            batchFingerids.add(user.getFingerid());
+            candidates.add(row);
+        }
+
+        // One IN query per key and chunk instead of four SELECTs per row
+        Set<String> existingEmails = inChunks(batchEmails, userRepository::findExistingEmails).stream()
+                .map(UserService::normalizeEmail)
+                .collect(Collectors.toSet());
+        Set<Integer> existingRfids = new HashSet<>(inChunks(batchRfids, userRepository::findExistingRfids));
+        Set<Integer> existingFaceids = new HashSet<>(inChunks(batchFaceids, userRepository::findExistingFaceids));
+        Set<Integer> existingFingerids = new HashSet<>(inChunks(batchFingerids, userRepository::findExistingFingerids));
+
+        List<User> toInsert = new ArrayList<>();
+        List<Integer> insertedRows = new ArrayList<>();
+        for (int row : candidates) {
+            User user = users.get(row);
+            String conflict = existingEmails.contains(normalizeEmail(user.getEmail())) ? "Email already exists"
+                    : existingRfids.contains(user.getRfid()) ? "RFID " + user.getRfid() + " already exists"
+                    : existingFaceids.contains(user.getFaceid()) ? "FaceID " + user.getFaceid() + " already exists"
+                    : existingFingerids.contains(user.getFingerid()) ? "FingerID " + user.getFingerid() + " already exists"
+                    : null;
+            if (conflict != null) {
+                results[row] = rejected(row, user, BulkImportResult.Status.DUPLICATE, conflict);
+            } else {
+                toInsert.add(user);
+                insertedRows.add(row);
+            }
+        }
+
+        if (!toInsert.isEmpty()) {
+            userRepository.batchInsert(toInsert);
+            cacheService.evictQueryResultsAfterCommit();
+
+            // Reload the new rows to learn their generated ids
+            Map<String, User> inserted = new HashMap<>();
+            List<String> insertedEmails = toInsert.stream().map(User::getEmail).toList();
+            for (User user : inChunks(insertedEmails, userRepository::findByEmailIn)) {
+                inserted.put(normalizeEmail(user.getEmail()), user);
+            }
+            for (int row : insertedRows) {
+                User user = inserted.get(normalizeEmail(users.get(row).getEmail()));
+                results[row] = new BulkImportResult(row, user.getEmail(), BulkImportResult.Status.CREATED, user.getId(), null);
+            }
+            changePublisher.publishSaved(inserted.values());
+        }
+
+        logger.info("Bulk import finished: {} rows, {} created", users.size(), toInsert.size());
+        return BulkImportReport.of(Arrays.asList(results));
+    }
+
+    private static BulkImportResult rejected(int row, User user, BulkImportResult.Status status, String message) {
+        return new BulkImportResult(row, user.getEmail(), status, null, message);
+    }
+
+    private static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    // Split large IN lists so a single statement stays within driver and optimizer limits
+    private static <T, R> List<R> inChunks(Collection<T> values, Function<Collection<T>, List<R>> query) {
+        List<R> result = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(IN_CHUNK_SIZE);
+        for (T value : values) {
+            chunk.add(value);
+            if (chunk.size() == IN_CHUNK_SIZE) {
+                result.addAll(query.apply(chunk));
+                chunk = new ArrayList<>(IN_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            result.addAll(query.apply(chunk));
+        }
+        return result;
+    }
+
+    // Export all Users as a stream; rows are written and detached one by one so heap use stays flat
+    @Transactional(readOnly = true)
+    public long exportUsers(UserExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long count = 0;
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            if (format == UserExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                while (iterator.hasNext()) {
+                    User user = iterator.next();
+                    writeCsvRow(writer, user);
+                    entityManager.detach(user);
+                    count++;
+                }
+            } else {
+                SequenceWriter rows = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+                while (iterator.hasNext()) {
+                    User user = iterator.next();
+                    rows.write(user);
+                    entityManager.detach(user);
+                    count++;
+                }
+                rows.flush();
+                if (count > 0) {
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} users as {}", count, format);
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, User user) throws IOException {
+        writer.write(Integer.toString(user.getId()));
+        writer.write(',');
+        writer.write(csvField(user.getName()));
+        writer.write(',');
+        writer.write(csvField(user.getEmail()));
+        writer.write(',');
+        writer.write(csvField(user.getStatus()));
+        writer.write(',');
+        writer.write(csvField(user.getGender()));
+        writer.write(',');
+        writer.write(Integer.toString(user.getPhone()));
+        writer.write(',');
+        writer.write(Integer.toString(user.getRfid()));
+        writer.write(',');
+        writer.write(Integer.toString(user.getFaceid()));
+        writer.write(',');
+        writer.write(Integer.toString(user.getFingerid()));
+        writer.write('\n');
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
     // Delete User
+    @Transactional
     public String deleteUser(int id) {
         try {
             Optional<User> userOptional = userRepository.findById(id);
 
             if (userOptional.isPresent()) {
                 userRepository.deleteById(id);
+                changePublisher.publishDeleted(id);
                 return "Berhasil menghapus user";
             } else {
                 throw new ResourceNotFoundException("User tidak ditemukan dengan id: " + id);
@@ -96,53 +451,116 @@ public class UserService {
         }
     }
 
-    // Search User by Part of Name
-    public List<User> searchUserByName(String name) {
-
-        System.out.println("Received search request with name: " + name);
-
-        ExampleMatcher matcher = ExampleMatcher.matching()
-                .withIgnoreCase()
-                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-                .withMatcher("name", ExampleMatcher.GenericPropertyMatchers.contains())
-                .withIgnorePaths("id", "email", "status", "gender", "phone", "faceid", "fingerid", "rfid");
+    // Delete Users by id list or status: one DELETE per chunk, indexes updated once at commit
+    @Transactional
+    public BulkActionReport deleteUsers(UserSelection selection) {
+        List<Integer> ids = resolveSelection(selection);
+        int affected = 0;
+        for (List<Integer> chunk : chunks(ids)) {
+            affected += userRepository.deleteByIdIn(chunk);
+        }
+        changePublisher.publishDeleted(ids);
+        logger.atInfo().addKeyValue("matched", ids.size()).addKeyValue("affected", affected).log("Bulk delete finished");
+        return new BulkActionReport(ids.size(), affected);
+    }
 
+    // Delete the expiry candidates whose pass has really lapsed: confirmed by primary key, then one DELETE per chunk
+    @Transactional
+    public BulkActionReport deleteExpiredPasses(Collection<Integer> candidates, Instant now, String status) {
+        List<Integer> expired = inChunks(candidates, chunk -> userRepository.findExpiredIdsIn(chunk, now, status));
+        int affected = 0;
+        for (List<Integer> chunk : chunks(expired)) {
+            affected += userRepository.deleteByIdIn(chunk);
+        }
+        changePublisher.publishDeleted(expired);
+        return new BulkActionReport(candidates.size(), affected);
+    }
 
-        User user = new User();
-        user.setName(name);
+    // Deactivate (or reactivate) Users by id list or status: one UPDATE per chunk
+    @Transactional
+    public BulkActionReport setDeactivated(UserSelection selection, boolean deactivated) {
+        List<Integer> ids = resolveSelection(selection);
+        List<User> changed = new ArrayList<>(ids.size());
+        int affected = 0;
+        for (List<Integer> chunk : chunks(ids)) {
+            affected += userRepository.updateDeactivated(chunk, deactivated);
+            changed.addAll(userRepository.findByIdIn(chunk));
+        }
+        changePublisher.publishSaved(changed);
+        logger.atInfo().addKeyValue("matched", ids.size()).addKeyValue("affected", affected)
+                .addKeyValue("deactivated", deactivated).log("Bulk deactivation finished");
+        return new BulkActionReport(ids.size(), affected);
+    }
 
-        Example<User> example = Example.of(user, matcher);
+    private List<Integer> resolveSelection(UserSelection selection) {
+        if (selection == null || !selection.isValid()) {
+            throw new IllegalArgumentException("Isi salah satu dari ids atau status");
+        }
+        if (selection.ids() != null && !selection.ids().isEmpty()) {
+            return selection.ids().stream().filter(Objects::nonNull).distinct().toList();
+        }
+        return userRepository.findIdsByStatus(selection.status().trim());
+    }
 
-        return userRepository.findAll(example);
+    private static List<List<Integer>> chunks(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
     }
 
-    // Filter User by Status
-    public Page<User> filterStatus(String status, Pageable pageable) {
-        ExampleMatcher matcher = ExampleMatcher.matching()
-                .withIgnoreCase()
-                .withStringMatcher(ExampleMatcher.StringMatcher.EXACT)
-                .withMatcher("status", ExampleMatcher.GenericPropertyMatchers.exact())
-                .withIgnorePaths("id", "name", "email", "gender", "phone", "faceid", "fingerid", "rfid");
+    // Search User by Part of Name, answered from the in-memory trigram index
+    @Transactional(readOnly = true)
+    public PagedResponse<UserSummary> searchUserByName(String name, int page, int size) {
+        logger.debug("Received search request with name: {}", name);
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page index must not be negative and size must be positive");
+        }
+
+        NameTrigramIndex.SearchHits hits = nameIndex.search(name, page, size);
 
+        // Only the requested page is loaded, by primary key
+        List<Integer> ids = Arrays.stream(hits.ids()).boxed().toList();
+        Map<Integer, UserSummary> usersById = userRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+        List<UserSummary> content = ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
 
-        User user = new User();
-        user.setStatus(status);
+        int totalPages = size == 0 ? 0 : (hits.total() + size - 1) / size;
+        return new PagedResponse<>(content, page, size, hits.total(), totalPages, page + 1 >= totalPages);
+    }
 
-        Example<User> example = Example.of(user, matcher);
+    // Filter User by Status
+    @Transactional(readOnly = true)
+    public PagedResponse<UserSummary> filterStatus(String status, Pageable pageable) {
+        // The facet counters already know the total, so skip the count query
+        long total = facetCounter.countByStatus(status);
+        if (total == 0) {
+            return PagedResponse.of(Page.empty(pageable));
+        }
+        Slice<UserSummary> slice = userRepository.findSummariesByStatus(status, pageable);
+        return PagedResponse.of(new PageImpl<>(slice.getContent(), pageable, total));
+    }
 
-        return userRepository.findAll(example, pageable);
+    // Count Users per status and gender from the in-memory counters
+    public UserFacets getUserFacets() {
+        return facetCounter.snapshot();
     }
 
     // Sort Users by Name in Ascending Order
-    public Page<User> sortUsersByNameAscending(int page, int size) {
+    @Transactional(readOnly = true)
+    public PagedResponse<UserSummary> sortUsersByNameAscending(int page, int size) {
         try {
-            System.out.println("Sorting Users by Name in Ascending Order");
+            logger.atDebug().addKeyValue("page", page).addKeyValue("size", size).log("Sorting users by name ascending");
 
             // Create a sort object with the "name" property and specify ascending order
             Sort sort = Sort.by(Sort.Order.asc("name"));
 
-            // Use the findAll method with sorting and pagination
-            return userRepository.findAll(PageRequest.of(page, size, sort));
+            // Select only the listing columns with sorting and pagination
+            return PagedResponse.of(userRepository.findSummaries(PageRequest.of(page, size, sort)));
         } catch (Exception e) {
             // Log the exception or rethrow as a more specific exception if necessary
             throw new RuntimeException("Error sorting users by name in ascending order", e);
@@ -150,15 +568,16 @@ public class UserService {
     }
 
     // Sort Users by Name in Descending Order
-    public Page<User> sortUsersByNameDescending(int page, int size) {
+    @Transactional(readOnly = true)
+    public PagedResponse<UserSummary> sortUsersByNameDescending(int page, int size) {
         try {
-            System.out.println("Sorting Users by Name in Descending Order");
+            logger.atDebug().addKeyValue("page", page).addKeyValue("size", size).log("Sorting users by name descending");
 
             // Create a sort object with the "name" property and specify descending order
             Sort sort = Sort.by(Sort.Order.desc("name"));
 
-            // Use the findAll method with sorting and pagination
-            return userRepository.findAll(PageRequest.of(page, size, sort));
+            // Select only the listing columns with sorting and pagination
+            return PagedResponse.of(userRepository.findSummaries(PageRequest.of(page, size, sort)));
         } catch (Exception e) {
             // Log the exception or rethrow as a more specific exception if necessary
             throw new RuntimeException("Error sorting users by name in descending order", e);
@@ -207,22 +626,22 @@ public class UserService {
 
     private void checkDuplicateKeysForUpdate(User user) {
         // Check for duplicate keys directly in the database during update
-        Objects.requireNonNull(UserRepository.findByEmailAndIdNot(user.getEmail(), user.getId()))
+        Objects.requireNonNull(userRepository.findByEmailAndIdNot(user.getEmail(), user.getId()))
                 .ifPresent(existingUserWithEmail -> {
                     throw new DuplicateKeyException("Email already exists");
                 });
 
-        Objects.requireNonNull(UserRepository.findByRfidAndIdNot(user.getRfid(), user.getId()))
+        Objects.requireNonNull(userRepository.findByRfidAndIdNot(user.getRfid(), user.getId()))
                 .ifPresent(existingUserWithRfid -> {
                     throw new DuplicateKeyException("RFID " + user.getRfid() + " already exists");
                 });
 
-        Objects.requireNonNull(UserRepository.findByFaceidAndIdNot(user.getFaceid(), user.getId()))
+        Objects.requireNonNull(userRepository.findByFaceidAndIdNot(user.getFaceid(), user.getId()))
                 .ifPresent(existingUserWithFaceid -> {
                     throw new DuplicateKeyException("FaceID " + user.getFaceid() + " already exists");
                 });
 
-        Objects.requireNonNull(UserRepository.findByFingeridAndIdNot(user.getFingerid(), user.getId()))
+        Objects.requireNonNull(userRepository.findByFingeridAndIdNot(user.getFingerid(), user.getId()))
                 .ifPresent(existingUserWithFingerid -> {
                     throw new DuplicateKeyException("FingerID " + user.getFingerid() + " already exists");
                 });
@@ -231,18 +650,21 @@ public class UserService {
         }
     }
 
-    private void handleDuplicateKeyException(Exception e) {
+    // Map the violated unique constraint to the same messages checkDuplicateKeysForAdd produces
+    private void handleDuplicateKeyException(Exception e, User user) {
         if (e.getCause() instanceof org.hibernate.exception.ConstraintViolationException constraintViolationException) {
-            String constraintName = constraintViolationException.getConstraintName();
-            if (constraintName != null && constraintName.contains("user_email_key")) {
+            // MySQL reports "users.user_email_key", H2 "public.user_email_key_index_2"; match on the name only
+            String constraintName = Objects.toString(constraintViolationException.getConstraintName(), "")
+                    .toLowerCase(Locale.ROOT);
+            if (constraintName.contains("user_email_key")) {
                 throw new DuplicateKeyException("Email already exists");
-            } else if (constraintName != null && constraintName.contains("user_rfid_key")) {
-                throw new DuplicateKeyException("RFID already exists");
-            } else if (constraintName != null && constraintName.contains("user_faceid_key")) {
-                throw new DuplicateKeyException("FaceID already exists");
-            } else if (constraintName != null && constraintName.contains("user_fingerid_key")) {
-                throw new DuplicateKeyException("FingerID already exists");
+            } else if (constraintName.contains("user_rfid_key")) {
+                throw new DuplicateKeyException("RFID " + user.getRfid() + " already exists");
+            } else if (constraintName.contains("user_faceid_key")) {
+                throw new DuplicateKeyException("FaceID " + user.getFaceid() + " already exists");
+            } else if (constraintName.contains("user_fingerid_key")) {
+                throw new DuplicateKeyException("FingerID " + user.getFingerid() + " already exists");
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.svipb.pam.service;
+
+/**
+ * How {@link UserService} guards the unique email/RFID/FaceID/FingerID columns on add and update.
+ */
+public enum UserWriteMode {
+    /** Look up each unique column first, then write: up to five extra SELECTs per write. */
+    CHECKED,
+    /** Write straight away and map the violated constraint name to a {@code DuplicateKeyException}. */
+    OPTIMISTIC
+}
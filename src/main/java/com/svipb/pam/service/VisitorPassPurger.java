@@ -0,0 +1,106 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.dto.BulkActionReport;
+import com.svipb.pam.index.VisitorPassExpiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deletes expired visitor passes in periodic batches. Candidates come from
+ * {@link VisitorPassExpiry}, and each is confirmed against its row by primary key before the
+ * batch goes through {@link UserService#deleteExpiredPasses}. A pass that was extended in the meantime,
+ * or a user whose status is not {@code pam.visitor-passes.purge-status}, keeps its row.
+ */
+@Service
+public class VisitorPassPurger implements SmartLifecycle {
+
+    private final VisitorPassExpiry visitorPassExpiry;
+    private final UserService userService;
+    private final String purgeStatus;
+    private final long intervalNanos;
+    private final Lock purgeLock = new ReentrantLock();
+    private final Logger logger = LoggerFactory.getLogger(VisitorPassPurger.class);
+
+    private volatile boolean running;
+    private Thread purgeThread;
+
+    public VisitorPassPurger(VisitorPassExpiry visitorPassExpiry, UserService userService,
+                             @Value("${pam.visitor-passes.purge-status:bukan staff}") String purgeStatus,
+                             @Value("${pam.visitor-passes.purge-interval-ms:60000}") long intervalMs) {
+        this.visitorPassExpiry = visitorPassExpiry;
+        this.userService = userService;
+        this.purgeStatus = purgeStatus.trim();
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    }
+
+    /**
+     * Deletes the passes expired since the previous purge.
+     *
+     * @return the number of users deleted
+     */
+    public int purge() {
+        // A lock rather than synchronized, so a caller on a virtual thread never pins its carrier over JDBC
+        purgeLock.lock();
+        try {
+            List<Integer> candidates = visitorPassExpiry.drainExpired();
+            if (candidates.isEmpty()) {
+                return 0;
+            }
+            try {
+                BulkActionReport report = userService.deleteExpiredPasses(candidates, Instant.now(), purgeStatus);
+                logger.atInfo().addKeyValue("candidates", candidates.size()).addKeyValue("deleted", report.affected())
+                        .log("Expired visitor passes purged");
+                return report.affected();
+            } catch (RuntimeException e) {
+                visitorPassExpiry.requeue(candidates);
+                logger.error("Failed to purge {} expired visitor passes", candidates.size(), e);
+                return 0;
+            }
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        purgeThread = new Thread(this::purgeLoop, "visitor-pass-purge");
+        purgeThread.setDaemon(true);
+        purgeThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(purgeThread);
+        try {
+            purgeThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void purgeLoop() {
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            if (running) {
+                purge();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.svipb.pam;
+
+import com.svipb.pam.entity.User;
+
+// Shared User fixture: every credential column and the phone take the same value
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    public static User user(String email, int credential) {
+        User user = new User();
+        user.setName("User " + credential);
+        user.setEmail(email);
+        user.setStatus("staff");
+        user.setGender("Perempuan");
+        user.setPhone(credential);
+        user.setRfid(credential);
+        user.setFaceid(credential);
+        user.setFingerid(credential);
+        return user;
+    }
+}
@@ -0,0 +1,197 @@
+package com.svipb.pam.benchmark;
+
+import com.svipb.pam.PortAccessManagementApplication;
+import com.svipb.pam.entity.Admin;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.security.JwtService;
+import com.svipb.pam.service.AdminService;
+import com.svipb.pam.service.UserService;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Closed-loop load test of {@code GET /users/all} in platform-thread and virtual-thread mode.
+ * Every SQL statement is delayed by {@link LatencyStatementInspector} to stand in for the
+ * MySQL round trip, Tomcat keeps its platform pool at 50 threads and
+ * Hikari is sized above the client count, so the only difference between the runs is how
+ * many requests can sit blocked on JDBC at once. Virtual-thread runs also count
+ * {@code jdk.VirtualThreadPinned} events on request threads and fail if any occur.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark}; {@code -Dbench.clients}, {@code -Dbench.tomcat-threads},
+ * {@code -Dbench.statement-latency-ms} and {@code -Dbench.seconds} override the defaults.
+ */
+@Tag("benchmark")
+class ExecutionModeBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 200);
+    private static final int TOMCAT_THREADS = Integer.getInteger("bench.tomcat-threads", 50);
+    private static final int POOL_SIZE = CLIENTS + 50;
+    private static final Duration STATEMENT_LATENCY = Duration.ofMillis(Long.getLong("bench.statement-latency-ms", 5));
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("bench.seconds", 10));
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.println();
+        System.out.printf("%-10s %10s %12s %10s %10s %8s %8s%n",
+                "mode", "requests", "req/s", "p50 ms", "p99 ms", "errors", "pinned");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %10d %12.1f %10.2f %10.2f %8d %8d%n",
+                    result.mode(), result.requests(), result.throughput(),
+                    result.p50Millis(), result.p99Millis(), result.errors(), result.pinned());
+        }
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertEquals(0, virtual.pinned(), "Request threads pinned their carrier during JDBC calls");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        LatencyStatementInspector.delay = Duration.ZERO;
+        try (var context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(PortAccessManagementApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        // Caches would hide the JDBC round trip this benchmark is about
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + LatencyStatementInspector.class.getName(),
+                        "--logging.level.root=WARN");
+             RecordingStream pinning = new RecordingStream()) {
+            seed(context.getBean(UserService.class));
+            String token = bearerToken(context);
+            LatencyStatementInspector.delay = STATEMENT_LATENCY;
+
+            AtomicLong pinned = new AtomicLong();
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> {
+                if (event.getThread() != null && event.getThread().getJavaName().startsWith("tomcat-handler")) {
+                    pinned.incrementAndGet();
+                }
+            });
+            pinning.startAsync();
+
+            Result result = load(mode, context.getWebServer().getPort(), token, pinned);
+            LatencyStatementInspector.delay = Duration.ZERO;
+            return result;
+        }
+    }
+
+    private static void seed(UserService userService) {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 1; i <= USERS; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@pam.id");
+            user.setStatus(i % 3 == 0 ? "visitor" : "staff");
+            user.setGender(i % 2 == 0 ? "Laki-laki" : "Perempuan");
+            user.setPhone(i);
+            user.setRfid(i);
+            user.setFaceid(i);
+            user.setFingerid(i);
+            users.add(user);
+        }
+        userService.importUsers(users);
+    }
+
+    private static String bearerToken(ApplicationContext context) {
+        Admin admin = new Admin();
+        admin.setName("Benchmark");
+        admin.setUsername("benchmark");
+        admin.setEmail("benchmark@pam.id");
+        admin.setPassword("benchmark");
+        return context.getBean(JwtService.class).issue(context.getBean(AdminService.class).addAdminData(admin)).token();
+    }
+
+    private static Result load(String mode, int port, String token, AtomicLong pinned) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP.toNanos();
+        long measureUntil = measureFrom + MEASUREMENT.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> workers = new ArrayList<>(CLIENTS);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clients).build()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                workers.add(clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < measureUntil) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/all"))
+                                .header("page", Integer.toString(ThreadLocalRandom.current().nextInt(USERS / PAGE_SIZE)))
+                                .header("size", Integer.toString(PAGE_SIZE))
+                                .header("Authorization", "Bearer " + token)
+                                .build();
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        long elapsed = System.nanoTime() - now;
+                        if (now < measureFrom) {
+                            continue;
+                        }
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count << 1);
+                        }
+                        samples[count++] = elapsed;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+
+            long[] latencies = new long[0];
+            for (Future<long[]> worker : workers) {
+                long[] samples = worker.get();
+                int offset = latencies.length;
+                latencies = Arrays.copyOf(latencies, offset + samples.length);
+                System.arraycopy(samples, 0, latencies, offset, samples.length);
+            }
+            Arrays.sort(latencies);
+            return new Result(mode, latencies.length, latencies.length / (MEASUREMENT.toNanos() / 1e9),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), errors.get(), pinned.get());
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(String mode, int requests, double throughput, double p50Millis, double p99Millis,
+                          long errors, long pinned) {
+    }
+}
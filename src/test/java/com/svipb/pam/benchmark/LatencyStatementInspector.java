@@ -0,0 +1,27 @@
+package com.svipb.pam.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.time.Duration;
+
+/**
+ * Adds a fixed delay in front of every SQL statement so the in-memory H2 database behaves
+ * like a MySQL server one network round trip away. The request thread sleeps while holding
+ * its connection, which is exactly the blocking the execution-mode benchmark measures.
+ */
+public class LatencyStatementInspector implements StatementInspector {
+
+    static volatile Duration delay = Duration.ZERO;
+
+    @Override
+    public String inspect(String sql) {
+        if (!delay.isZero()) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,58 @@
+package com.svipb.pam.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "pam.datasource.replica.url=jdbc:h2:mem:pam-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "pam.datasource.replica.username=sa",
+        "pam.datasource.replica.driver-class-name=org.h2.Driver"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertTrue(readOnly.execute(status -> connectionUrl()).contains("pam-replica"));
+    }
+
+    @Test
+    void writesAndNonTransactionalWorkUsePrimary() throws SQLException {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        assertFalse(readWrite.execute(status -> connectionUrl()).contains("pam-replica"));
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(connection.getMetaData().getURL().contains("pam-replica"));
+        }
+    }
+
+    private String connectionUrl() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.getMetaData().getURL();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
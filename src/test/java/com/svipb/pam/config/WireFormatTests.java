@@ -0,0 +1,68 @@
+package com.svipb.pam.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WireFormatTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void acceptHeaderSelectsCborOrSmileAndJsonStaysDefault() throws Exception {
+        User user = new User();
+        user.setName("Wire User");
+        user.setEmail("wire@pam.id");
+        user.setStatus("staff");
+        user.setGender("Laki-laki");
+        user.setPhone(910);
+        user.setRfid(910);
+        user.setFaceid(910);
+        user.setFingerid(910);
+        userService.addUser(user);
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        String path = "/users/" + user.getId();
+
+        MvcResult json = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+        JsonNode expected = new ObjectMapper().readTree(json.getResponse().getContentAsByteArray());
+
+        MvcResult cbor = mockMvc.perform(get(path).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        byte[] cborBody = cbor.getResponse().getContentAsByteArray();
+        assertEquals(expected, new CBORMapper().readTree(cborBody));
+        assertTrue(cborBody.length < json.getResponse().getContentAsByteArray().length);
+
+        MvcResult smile = mockMvc.perform(get(path).accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(expected, new SmileMapper().readTree(smile.getResponse().getContentAsByteArray()));
+    }
+}
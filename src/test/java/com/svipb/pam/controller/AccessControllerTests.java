@@ -0,0 +1,56 @@
+package com.svipb.pam.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.svipb.pam.dto.UserSelection;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static com.svipb.pam.TestUsers.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccessControllerTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void putForDeactivatedUserKeepsTheGateClosed() throws Exception {
+        User user = user("put-deactivated@pam.id", 950);
+        userService.addUser(user);
+        userService.setDeactivated(UserSelection.ofIds(List.of(user.getId())), true);
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        mockMvc.perform(get("/access/verify").param("type", "rfid").param("value", "950"))
+                .andExpect(status().isNotFound());
+
+        // A PUT body never carries deactivated, so it arrives as false with the version read before
+        user.setName("Renamed");
+        user.setDeactivated(false);
+        mockMvc.perform(put("/users/update").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/access/verify").param("type", "rfid").param("value", "950"))
+                .andExpect(status().isNotFound());
+        userService.deleteUser(user.getId());
+    }
+}
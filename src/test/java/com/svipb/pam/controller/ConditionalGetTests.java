@@ -0,0 +1,65 @@
+package com.svipb.pam.controller;
+
+import com.svipb.pam.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static com.svipb.pam.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConditionalGetTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void listingsAnswer304UntilTheRosterChanges() throws Exception {
+        userService.addUser(user("etag-a@pam.id", 920));
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        String etag = mockMvc.perform(get("/users/status").header("status", "staff"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/users/status").header("status", "STAFF").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        // Another page is another representation
+        mockMvc.perform(get("/users/status").header("status", "staff").header("page", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(result -> assertNotEquals(304, result.getResponse().getStatus()));
+        // Variants whose 31-based hashes used to collide: 31 * 0 + 41 == 31 * 1 + 10
+        String page0 = mockMvc.perform(get("/users/all").header("page", 0).header("size", 41))
+                .andExpect(header().string(HttpHeaders.VARY, "page, size, Accept"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/users/all").header("page", 1).header("size", 10).header(HttpHeaders.IF_NONE_MATCH, page0))
+                .andExpect(result -> assertNotEquals(304, result.getResponse().getStatus()));
+        mockMvc.perform(get("/users/status").header("status", "staff").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(header().string(HttpHeaders.VARY, "status, page, size, Accept"));
+        String allEtag = mockMvc.perform(get("/users/all"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, allEtag);
+
+        userService.addUser(user("etag-b@pam.id", 921));
+        String changed = mockMvc.perform(get("/users/status").header("status", "staff").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        mockMvc.perform(get("/users/all").header(HttpHeaders.IF_NONE_MATCH, allEtag))
+                .andExpect(status().isOk());
+    }
+}
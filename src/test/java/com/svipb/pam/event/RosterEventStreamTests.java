@@ -0,0 +1,145 @@
+package com.svipb.pam.event;
+
+import com.svipb.pam.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RosterEventStreamTests {
+
+    @Test
+    void slowSubscriberGetsLatestEventPerUserThenResetOnOverflow() throws Exception {
+        RosterEventStream stream = new RosterEventStream(100, 3, 60_000, 0);
+        stream.onInitialLoadComplete();
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        stream.subscribe(null, sink);
+
+        // The first event is taken and then held by the blocked sink; the rest queue up behind it
+        stream.onUserSaved(user(1, "A"));
+        assertNotNull(sink.waitForFirstSend());
+        stream.onUserSaved(user(2, "B"));
+        stream.onUserSaved(user(1, "A2"));
+        stream.onUserDeleted(2);
+        release.countDown();
+
+        RosterEvent held = sink.next();
+        RosterEvent renamed = sink.next();
+        RosterEvent deleted = sink.next();
+        assertEquals("A", held.user().name());
+        assertEquals("A2", renamed.user().name());
+        assertEquals(RosterEvent.Type.DELETED, deleted.type());
+        assertEquals(2, deleted.userId());
+
+        // Overflow: more distinct users than the buffer holds while the sink is stalled
+        CountDownLatch stall = new CountDownLatch(1);
+        sink.block(stall);
+        stream.onUserSaved(user(9, "Stall"));
+        assertEquals("Stall", sink.next().user().name());
+        for (int id = 10; id < 15; id++) {
+            stream.onUserSaved(user(id, "U" + id));
+        }
+        stall.countDown();
+        // The fourth distinct user overflowed the buffer at sequence 9; user 14 came after the reset
+        RosterEvent reset = sink.next();
+        assertEquals(RosterEvent.Type.RESET, reset.type());
+        assertEquals(9, sequenceOf(reset));
+        assertEquals(14, sink.next().userId());
+    }
+
+    @Test
+    void resumesFromLastEventIdAndResetsWhenUnknown() throws Exception {
+        RosterEventStream stream = new RosterEventStream(4, 100, 60_000, 0);
+        stream.onUserSaved(user(99, "Loaded at startup"));
+        stream.onInitialLoadComplete();
+        RecordingSink first = new RecordingSink(new CountDownLatch(0));
+        stream.subscribe(null, first);
+        stream.onUserSaved(user(1, "A"));
+        String lastSeen = first.next().id();
+
+        stream.onUserSaved(user(2, "B"));
+        stream.onUserSaved(user(1, "A2"));
+        RecordingSink resumed = new RecordingSink(new CountDownLatch(0));
+        stream.subscribe(lastSeen, resumed);
+        assertEquals(List.of(2, 1), List.of(resumed.next().userId(), resumed.next().userId()));
+
+        RecordingSink stale = new RecordingSink(new CountDownLatch(0));
+        stream.subscribe("0-1", stale);
+        assertEquals(RosterEvent.Type.RESET, stale.next().type());
+
+        for (int id = 3; id < 10; id++) {
+            stream.onUserSaved(user(id, "U" + id));
+        }
+        RecordingSink agedOut = new RecordingSink(new CountDownLatch(0));
+        stream.subscribe(lastSeen, agedOut);
+        assertEquals(RosterEvent.Type.RESET, agedOut.next().type());
+        assertEquals(4, stream.subscriberCount());
+        stream.destroy();
+        assertEquals(0, stream.subscriberCount());
+    }
+
+    private static long sequenceOf(RosterEvent event) {
+        return Long.parseLong(event.id().substring(event.id().indexOf('-') + 1));
+    }
+
+    private static User user(int id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setStatus("staff");
+        return user;
+    }
+
+    private static final class RecordingSink implements RosterEventStream.Sink {
+
+        private final BlockingQueue<RosterEvent> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch firstSend = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+
+        RecordingSink(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        void block(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(RosterEvent event) throws IOException {
+            // Read the gate before publishing the event, so block() only affects later sends
+            CountDownLatch current = gate;
+            sent.add(event);
+            firstSend.countDown();
+            try {
+                current.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        Object waitForFirstSend() throws InterruptedException {
+            return firstSend.await(5, TimeUnit.SECONDS) ? sent.peek() : null;
+        }
+
+        RosterEvent next() throws InterruptedException {
+            RosterEvent event = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event delivered");
+            return event;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.AccessRule;
+import com.svipb.pam.entity.RuleEffect;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessRuleEngineTests {
+
+    private static final int WEEKDAYS = 0b0011111;
+
+    // 2024-01-01 is a Monday
+    private static final Instant MONDAY_NOON = at(1, 12, 0);
+    private static final Instant MONDAY_NIGHT = at(1, 23, 30);
+    private static final Instant TUESDAY_EARLY = at(2, 5, 59);
+    private static final Instant SATURDAY_NOON = at(6, 12, 0);
+    private static final Instant SUNDAY_NIGHT = at(7, 23, 0);
+
+    private final AccessCredential staff = new AccessCredential(1, "Staff", "Staff", 100, 200, 300, null, null);
+    private final AccessCredential guest = new AccessCredential(2, "Guest", "guest", 101, 201, 301, null, null);
+
+    @Test
+    void emptyRuleSetFallsBackToDefaultEffect() {
+        assertTrue(new AccessRuleEngine(RuleEffect.ALLOW, ZoneOffset.UTC).allows("lobby", staff, MONDAY_NOON));
+        assertFalse(new AccessRuleEngine(RuleEffect.DENY, ZoneOffset.UTC).allows("lobby", staff, MONDAY_NOON));
+    }
+
+    @Test
+    void wildcardScopesMatchAndDenyWins() {
+        AccessRuleEngine engine = new AccessRuleEngine(RuleEffect.DENY, ZoneOffset.UTC);
+        engine.recompile(List.of(
+                rule(null, "staff", null, WEEKDAYS, 7 * 60, 19 * 60, RuleEffect.ALLOW),
+                rule("Server-Room", null, null, 0, 0, 0, RuleEffect.DENY),
+                rule("server-room", null, 1, WEEKDAYS, 9 * 60, 17 * 60, RuleEffect.ALLOW)));
+
+        assertEquals(3, engine.ruleCount());
+        assertTrue(engine.allows("lobby", staff, MONDAY_NOON));
+        assertTrue(engine.allows(null, staff, MONDAY_NOON));
+        assertFalse(engine.allows("lobby", staff, SATURDAY_NOON));
+        assertFalse(engine.allows("lobby", guest, MONDAY_NOON));
+        // The user-specific allow does not override the port-wide deny
+        assertFalse(engine.allows("server-room", staff, MONDAY_NOON));
+    }
+
+    @Test
+    void overnightWindowRunsPastMidnightAndWrapsTheWeek() {
+        AccessRuleEngine engine = new AccessRuleEngine(RuleEffect.DENY, ZoneOffset.UTC);
+        engine.recompile(List.of(
+                rule("dock", "staff", null, 0b1000001, 22 * 60, 6 * 60, RuleEffect.ALLOW)));
+
+        assertTrue(engine.allows("dock", staff, MONDAY_NIGHT));
+        assertTrue(engine.allows("dock", staff, TUESDAY_EARLY));
+        assertFalse(engine.allows("dock", staff, MONDAY_NOON));
+        // Sunday night spills into Monday morning of the same weekly pattern
+        assertTrue(engine.allows("dock", staff, SUNDAY_NIGHT));
+        assertTrue(engine.allows("dock", staff, at(1, 5, 0)));
+    }
+
+    @Test
+    void recompileReplacesTheWholeRuleSet() {
+        AccessRuleEngine engine = new AccessRuleEngine(RuleEffect.ALLOW, ZoneOffset.UTC);
+        engine.recompile(List.of(rule("lobby", null, 2, 0, 0, 0, RuleEffect.DENY)));
+        assertFalse(engine.allows("lobby", guest, MONDAY_NOON));
+        assertTrue(engine.allows("lobby", staff, MONDAY_NOON));
+
+        engine.recompile(List.of());
+        assertEquals(0, engine.ruleCount());
+        assertTrue(engine.allows("lobby", guest, MONDAY_NOON));
+    }
+
+    private static AccessRule rule(String port, String status, Integer userId, int days, int start, int end,
+                                   RuleEffect effect) {
+        return new AccessRule(0, port, status, userId, days, start, end, effect, null, 0);
+    }
+
+    private static Instant at(int dayOfMonth, int hour, int minute) {
+        return LocalDateTime.of(2024, 1, dayOfMonth, hour, minute).toInstant(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,121 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CredentialIndexTests {
+
+    @Test
+    void lookupFollowsUpdatesAndDeletes() {
+        CredentialIndex index = new CredentialIndex();
+        index.onUserSaved(user(1, 100, 200, 300));
+
+        assertEquals(1, index.lookup(CredentialType.RFID, 100).orElseThrow().userId());
+        assertEquals(1, index.lookup(CredentialType.FINGERID, 300).orElseThrow().userId());
+
+        index.onUserSaved(user(1, 101, 200, 300));
+        assertTrue(index.lookup(CredentialType.RFID, 100).isEmpty());
+        assertEquals(1, index.lookup(CredentialType.RFID, 101).orElseThrow().userId());
+
+        index.onUserDeleted(1);
+        assertTrue(index.lookup(CredentialType.FACEID, 200).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void reassignedCredentialIsNotDroppedByPreviousOwner() {
+        CredentialIndex index = new CredentialIndex();
+        index.onUserSaved(user(1, 100, 200, 300));
+        index.onUserSaved(user(2, 100, 201, 301));
+
+        index.onUserDeleted(1);
+        assertEquals(2, index.lookup(CredentialType.RFID, 100).orElseThrow().userId());
+    }
+
+    @Test
+    void deltaCoalescesChangesPerUserAndAgesOut() {
+        CredentialIndex index = new CredentialIndex(4);
+        index.onUserSaved(user(1, 100, 200, 300));
+        index.onInitialLoadComplete();
+        long base = index.version();
+        assertTrue(index.changesSince(index.epoch(), base - 1).isEmpty());
+
+        index.onUserSaved(user(2, 101, 201, 301));
+        index.onUserSaved(user(2, 102, 201, 301));
+        index.onUserDeleted(1);
+
+        CredentialDelta delta = index.changesSince(index.epoch(), base).orElseThrow();
+        assertEquals(base + 3, delta.toVersion());
+        assertEquals(2, delta.changes().size());
+        assertEquals(102, delta.changes().get(0).credential().rfid());
+        assertTrue(delta.changes().get(1).deleted());
+
+        index.onUserSaved(user(3, 103, 203, 303));
+        index.onUserSaved(user(4, 104, 204, 304));
+        assertTrue(index.changesSince(index.epoch(), base).isEmpty());
+        assertTrue(index.changesSince(index.epoch() + 1, index.version()).isEmpty());
+        assertEquals(3, index.snapshot().credentials().size());
+    }
+
+    @Test
+    void snapshotCarriesTheValidityWindowForOfflineGates() throws IOException {
+        CredentialIndex index = new CredentialIndex();
+        User visitor = user(1, 100, 200, 300);
+        Instant from = Instant.now().plusSeconds(3600);
+        visitor.setValidFrom(from);
+        index.onUserSaved(visitor);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(CredentialSnapshotCodec.encode(index.snapshot())));
+        assertEquals(CredentialSnapshotCodec.SNAPSHOT_MAGIC, in.readInt());
+        assertEquals(CredentialSnapshotCodec.FORMAT, in.readByte());
+        in.readLong();
+        in.readLong();
+        assertEquals(1, in.readInt());
+        assertEquals(1, in.readInt());
+        assertEquals(100, in.readInt());
+        in.readInt();
+        in.readInt();
+        assertEquals("staff", in.readUTF());
+        assertEquals(from.toEpochMilli(), in.readLong());
+        assertEquals(Long.MAX_VALUE, in.readLong());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void intObjectHashMapMatchesHashMap() {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    private static User user(int id, int rfid, int faceid, int fingerid) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setStatus("staff");
+        user.setRfid(rfid);
+        user.setFaceid(faceid);
+        user.setFingerid(fingerid);
+        return user;
+    }
+}
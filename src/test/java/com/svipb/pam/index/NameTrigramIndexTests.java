@@ -0,0 +1,45 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameTrigramIndexTests {
+
+    @Test
+    void ranksPrefixThenWordStartThenInfix() {
+        NameTrigramIndex index = new NameTrigramIndex();
+        index.onUserSaved(user(1, "Muhammad Haidar"));
+        index.onUserSaved(user(2, "Haidaru"));
+        index.onUserSaved(user(3, "Shaidar"));
+        index.onUserSaved(user(4, "Awid"));
+
+        NameTrigramIndex.SearchHits hits = index.search("HAID", 0, 10);
+        assertEquals(3, hits.total());
+        assertArrayEquals(new int[]{2, 1, 3}, hits.ids());
+
+        assertArrayEquals(new int[]{1}, index.search("haid", 1, 1).ids());
+        assertArrayEquals(new int[]{4}, index.search("wi", 0, 10).ids());
+    }
+
+    @Test
+    void followsRenamesAndDeletes() {
+        NameTrigramIndex index = new NameTrigramIndex();
+        index.onUserSaved(user(1, "Awidyo"));
+        index.onUserSaved(user(1, "Budi"));
+
+        assertEquals(0, index.search("awid", 0, 10).total());
+        assertEquals(1, index.search("bud", 0, 10).total());
+
+        index.onUserDeleted(1);
+        assertEquals(0, index.search("bud", 0, 10).total());
+    }
+
+    private static User user(int id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        return user;
+    }
+}
@@ -0,0 +1,86 @@
+package com.svipb.pam.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyTrackerTests {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T08:00:00Z");
+
+    @Test
+    void secondEntryIsPassbackAndExitsAreNeverBlocked() {
+        OccupancyTracker tracker = new OccupancyTracker(new CredentialIndex());
+
+        assertTrue(tracker.record("Lobby", 1, Direction.IN, NOW));
+        assertFalse(tracker.record("lobby", 1, Direction.IN, NOW.plusSeconds(5)));
+        assertTrue(tracker.record("lab", 1, Direction.IN, NOW));
+        assertTrue(tracker.record("lobby", 2, Direction.OUT, NOW));
+        assertTrue(tracker.record(null, 1, Direction.IN, NOW));
+
+        assertEquals(new ZoneOccupancy("lobby", 1, 1, 0, 1, 1), tracker.zone("LOBBY").orElseThrow());
+        assertEquals(List.of("lab", "lobby"), tracker.zones().stream().map(ZoneOccupancy::port).toList());
+        assertEquals(List.of(new Occupant(1, null, NOW)), tracker.occupants("lobby"));
+
+        assertTrue(tracker.record("lobby", 1, Direction.OUT, NOW));
+        assertTrue(tracker.record("lobby", 1, Direction.IN, NOW));
+        assertTrue(tracker.release("lobby", 1));
+        assertFalse(tracker.release("lobby", 1));
+        assertEquals(0, tracker.zone("lobby").orElseThrow().occupancy());
+    }
+
+    @Test
+    void drainReturnsCurrentStateOfChangedPairsOnce() {
+        OccupancyTracker tracker = new OccupancyTracker(new CredentialIndex());
+        tracker.restore("lobby", 9, NOW);
+        tracker.record("lobby", 1, Direction.IN, NOW);
+        tracker.record("lobby", 2, Direction.IN, NOW);
+        tracker.record("lobby", 2, Direction.OUT, NOW);
+        tracker.onUserDeleted(9);
+
+        List<OccupancyChange> changes = tracker.drainChanges();
+        assertEquals(3, changes.size());
+        assertTrue(changes.contains(new OccupancyChange("lobby", 1, NOW)));
+        assertTrue(changes.contains(new OccupancyChange("lobby", 2, null)));
+        assertTrue(changes.contains(new OccupancyChange("lobby", 9, null)));
+        assertTrue(tracker.drainChanges().isEmpty());
+
+        tracker.requeue(changes);
+        assertEquals(3, tracker.drainChanges().size());
+        assertEquals(1, tracker.zone("lobby").orElseThrow().occupancy());
+    }
+
+    @Test
+    void concurrentEntriesAdmitEachUserOnce() throws Exception {
+        OccupancyTracker tracker = new OccupancyTracker(new CredentialIndex());
+        int users = 2_000;
+        AtomicInteger admitted = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int user = 0; user < users; user++) {
+                        if (tracker.record("gate", user, Direction.IN, NOW)) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        ZoneOccupancy gate = tracker.zone("gate").orElseThrow();
+        assertEquals(users, admitted.get());
+        assertEquals(users, gate.occupancy());
+        assertEquals(7L * users, gate.passbackRejected());
+    }
+}
@@ -0,0 +1,111 @@
+package com.svipb.pam.index;
+
+import com.svipb.pam.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTests {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void everyEntryFiresOnItsOwnTickAcrossAllLevels() {
+        TimingWheel wheel = new TimingWheel(1000, START);
+        Random random = new Random(11);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        // Spread from seconds to past the top level (64^4 ticks is about 194 days)
+        for (int id = 0; id < 5_000; id++) {
+            long delay = (long) Math.pow(2, random.nextDouble() * 25) * 1000 + random.nextInt(1000);
+            deadlines.put(id, START + delay);
+            assertTrue(wheel.schedule(id, START + delay));
+        }
+        assertFalse(wheel.schedule(-1, START));
+
+        long now = START;
+        List<Integer> fired = new ArrayList<>();
+        while (wheel.size() > 0) {
+            long previous = now;
+            now += 1000 + random.nextInt(600_000);
+            long until = now;
+            wheel.advance(now, id -> {
+                long deadline = deadlines.get(id);
+                assertTrue(deadline <= until, "fired early: " + id);
+                // Not already due at the previous advance, so it was not held back either
+                assertTrue(deadline > previous / 1000 * 1000, "fired late: " + id);
+                fired.add(id);
+            });
+        }
+        assertEquals(deadlines.size(), fired.size());
+    }
+
+    @Test
+    void lapsedPassesLeaveTheIndexAndChangedDeadlinesWin() {
+        // Real time, because CredentialIndex drops passes that have already lapsed
+        long start = System.currentTimeMillis();
+        CredentialIndex credentialIndex = new CredentialIndex();
+        VisitorPassExpiry expiry = new VisitorPassExpiry(credentialIndex, 1000, start);
+        User visitor = visitor(1, start + 90_000);
+        User extended = visitor(2, start + 30_000);
+        credentialIndex.onUserSaved(visitor);
+        credentialIndex.onUserSaved(extended);
+        expiry.onUserSaved(visitor);
+        expiry.onUserSaved(extended);
+        extended.setValidUntil(Instant.ofEpochMilli(start + 3_600_000));
+        expiry.onUserSaved(extended);
+        expiry.onUserSaved(visitor(3, start - 1));
+
+        assertEquals(List.of(3), expiry.drainExpired());
+        expiry.advance(start + 60_000);
+        assertTrue(expiry.drainExpired().isEmpty());
+        assertTrue(credentialIndex.findByUserId(2).isPresent());
+
+        expiry.advance(start + 91_000);
+        assertEquals(List.of(1), expiry.drainExpired());
+        assertTrue(credentialIndex.findByUserId(1).isEmpty());
+        assertEquals(1, expiry.pending());
+
+        expiry.onUserDeleted(2);
+        expiry.advance(start + 7_200_000);
+        assertTrue(expiry.drainExpired().isEmpty());
+        assertEquals(0, expiry.pending());
+    }
+
+    @Test
+    void extensionIndexedWhileTheOldDeadlineFiresKeepsItsCredential() {
+        long start = System.currentTimeMillis();
+        CredentialIndex credentialIndex = new CredentialIndex();
+        VisitorPassExpiry expiry = new VisitorPassExpiry(credentialIndex, 1000, start);
+        User visitor = visitor(1, start + 30_000);
+        credentialIndex.onUserSaved(visitor);
+        expiry.onUserSaved(visitor);
+
+        // The extension reached CredentialIndex, but not yet this listener, when the old deadline fired
+        User extended = visitor(1, start + 3_600_000);
+        credentialIndex.onUserSaved(extended);
+        expiry.advance(start + 31_000);
+        expiry.onUserSaved(extended);
+
+        assertTrue(credentialIndex.findByUserId(1).isPresent());
+        assertEquals(1, expiry.pending());
+    }
+
+    private static User visitor(int id, long validUntil) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Visitor " + id);
+        user.setStatus("bukan staff");
+        user.setRfid(100 + id);
+        user.setFaceid(200 + id);
+        user.setFingerid(300 + id);
+        user.setValidUntil(Instant.ofEpochMilli(validUntil));
+        return user;
+    }
+}
@@ -0,0 +1,126 @@
+package com.svipb.pam.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorIndexTests {
+
+    private static final int DIMENSION = 32;
+
+    @Test
+    void flatIndexFindsExactNeighboursAcrossReplaceAndRemove() {
+        FlatVectorIndex index = new FlatVectorIndex(DIMENSION);
+        Random random = new Random(1);
+        float[][] vectors = new float[50][];
+        for (int id = 0; id < vectors.length; id++) {
+            vectors[id] = randomUnit(random);
+            index.put(id, vectors[id]);
+        }
+
+        List<VectorMatch> top = index.search(vectors[7], 3);
+        assertEquals(7, top.get(0).userId());
+        assertEquals(1f, top.get(0).similarity(), 1e-5);
+        assertTrue(top.get(1).similarity() >= top.get(2).similarity());
+
+        index.remove(7);
+        index.remove(0);
+        assertEquals(48, index.size());
+        assertNotEquals(7, index.search(vectors[7], 1).get(0).userId());
+        // The last vector was moved into a freed slot and must still be found under its own id
+        assertEquals(49, index.search(vectors[49], 1).get(0).userId());
+
+        index.put(3, vectors[7]);
+        assertEquals(3, index.search(vectors[7], 1).get(0).userId());
+        assertEquals(48, index.size());
+    }
+
+    @Test
+    void hnswMatchesExactSearchForNoisyProbes() {
+        Random random = new Random(2);
+        FlatVectorIndex flat = new FlatVectorIndex(DIMENSION);
+        HnswIndex hnsw = new HnswIndex(DIMENSION, 16, 100, 64);
+        float[][] vectors = new float[5_000][];
+        for (int id = 0; id < vectors.length; id++) {
+            vectors[id] = randomUnit(random);
+            flat.put(id, vectors[id]);
+            hnsw.put(id, vectors[id]);
+        }
+
+        int agree = 0;
+        int probes = 500;
+        for (int i = 0; i < probes; i++) {
+            float[] probe = noisy(vectors[random.nextInt(vectors.length)], random);
+            if (flat.search(probe, 1).get(0).userId() == hnsw.search(probe, 1).get(0).userId()) {
+                agree++;
+            }
+        }
+        assertTrue(agree >= probes * 0.98, "recall@1 was " + agree + "/" + probes);
+
+        hnsw.remove(10);
+        hnsw.put(11, vectors[12]);
+        assertEquals(4_999, hnsw.size());
+        assertEquals(2, hnsw.deletedNodes());
+        assertTrue(hnsw.search(vectors[10], 5).stream().noneMatch(match -> match.userId() == 10));
+        assertTrue(List.of(11, 12).contains(hnsw.search(vectors[12], 1).get(0).userId()));
+    }
+
+    @Test
+    void graphIsBuiltInTheBackgroundAndKeepsChangesMadeMeanwhile() throws InterruptedException {
+        BiometricIndex index = new BiometricIndex(DIMENSION, 2_000, 16, 100, 64);
+        index.loadComplete();
+        Random random = new Random(3);
+        float[][] vectors = new float[2_001][];
+        for (int id = 0; id < vectors.length; id++) {
+            vectors[id] = randomUnit(random);
+        }
+        for (int id = 0; id < 2_000; id++) {
+            index.enroll(CredentialType.FACEID, id, vectors[id]);
+        }
+
+        // Crossing the threshold started the build; these land while it runs or right after it
+        index.enroll(CredentialType.FACEID, 2_000, vectors[2_000]);
+        index.remove(CredentialType.FACEID, 3);
+        assertEquals(2_000, index.identify(CredentialType.FACEID, vectors[2_000]).orElseThrow().userId());
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!index.usesHnsw(CredentialType.FACEID) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(index.usesHnsw(CredentialType.FACEID));
+        assertEquals(2_000, index.size(CredentialType.FACEID));
+        assertEquals(2_000, index.identify(CredentialType.FACEID, vectors[2_000]).orElseThrow().userId());
+        assertNotEquals(3, index.identify(CredentialType.FACEID, vectors[3]).orElseThrow().userId());
+    }
+
+    private static float[] randomUnit(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return normalize(vector);
+    }
+
+    // Same template re-captured: the enrolled vector plus sensor noise
+    private static float[] noisy(float[] vector, Random random) {
+        float[] probe = vector.clone();
+        for (int i = 0; i < DIMENSION; i++) {
+            probe[i] += (float) random.nextGaussian() * 0.05f;
+        }
+        return normalize(probe);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,63 @@
+package com.svipb.pam.metrics;
+
+import com.svipb.pam.entity.User;
+import com.svipb.pam.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SqlStatementMetricsTests {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private SqlStatementMetricsFilter sqlStatementMetricsFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void recordsStatementsPerRequestAndRepositoryTimers() throws Exception {
+        User user = new User();
+        user.setName("Metrics User");
+        user.setEmail("metrics@pam.id");
+        user.setStatus("staff");
+        user.setGender("Perempuan");
+        user.setPhone(900);
+        user.setRfid(900);
+        user.setFaceid(900);
+        user.setFingerid(900);
+        userService.addUser(user);
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(sqlStatementMetricsFilter).build();
+
+        mockMvc.perform(get("/users/sortByNameAscending").header("page", 0).header("size", 10))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("pam.sql.statements")
+                .tag("uri", "/users/sortByNameAscending")
+                .summary();
+        assertNotNull(statements);
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+
+        assertNotNull(meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "UserRepository")
+                .timer());
+    }
+}
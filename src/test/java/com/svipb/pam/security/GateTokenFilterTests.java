@@ -0,0 +1,43 @@
+package com.svipb.pam.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GateTokenFilterTests {
+
+    @Test
+    void allowListDownloadsNeedTheGateToken() throws Exception {
+        GateTokenFilter filter = new GateTokenFilter("gate-secret");
+
+        assertTrue(passes(filter, "Bearer gate-secret"));
+        assertFalse(passes(filter, "Bearer other"));
+        assertFalse(passes(filter, null));
+    }
+
+    @Test
+    void withoutAConfiguredTokenEveryDownloadIsRefused() throws Exception {
+        GateTokenFilter filter = new GateTokenFilter("");
+
+        assertFalse(passes(filter, "Bearer "));
+        assertFalse(passes(filter, "Bearer anything"));
+    }
+
+    private static boolean passes(GateTokenFilter filter, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/access/snapshot");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (chain.getRequest() == null) {
+            assertEquals(401, response.getStatus());
+            return false;
+        }
+        return true;
+    }
+}
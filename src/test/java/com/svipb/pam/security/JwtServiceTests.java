@@ -0,0 +1,92 @@
+package com.svipb.pam.security;
+
+import com.svipb.pam.entity.Admin;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTests {
+
+    @Test
+    void issuedTokenVerifiesUntilRevoked() {
+        JwtService jwtService = new JwtService(Keys.secretKeyFor(SignatureAlgorithm.HS256), Duration.ofMinutes(5), 16,
+                Clock.systemUTC());
+        String token = jwtService.issue(admin()).token();
+
+        AuthenticatedAdmin verified = jwtService.verify(token).orElseThrow();
+        assertEquals(7, verified.adminId());
+        assertEquals("operator", verified.username());
+        assertSame(verified, jwtService.verify(token).orElseThrow(), "second verification should come from the cache");
+
+        assertTrue(jwtService.revoke(token));
+        assertTrue(jwtService.verify(token).isEmpty());
+        assertFalse(jwtService.revoke(token));
+    }
+
+    @Test
+    void rejectsForeignAndExpiredTokens() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        JwtService jwtService = new JwtService(Keys.secretKeyFor(SignatureAlgorithm.HS256), Duration.ofMinutes(5), 16, clock);
+        JwtService other = new JwtService(Keys.secretKeyFor(SignatureAlgorithm.HS256), Duration.ofMinutes(5), 16, clock);
+
+        assertTrue(jwtService.verify(other.issue(admin()).token()).isEmpty());
+        assertTrue(jwtService.verify("not-a-token").isEmpty());
+
+        String token = jwtService.issue(admin()).token();
+        assertTrue(jwtService.verify(token).isPresent());
+        clock.now = clock.now.plus(Duration.ofMinutes(5));
+        assertTrue(jwtService.verify(token).isEmpty(), "cached tokens must still expire");
+    }
+
+    @Test
+    void deletedAdminTokensAreDeniedEvenWhenCached() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        JwtService jwtService = new JwtService(Keys.secretKeyFor(SignatureAlgorithm.HS256), Duration.ofMinutes(5), 16, clock);
+        String token = jwtService.issue(admin()).token();
+        assertTrue(jwtService.verify(token).isPresent());
+
+        jwtService.revokeAdmin(7);
+        assertTrue(jwtService.verify(token).isEmpty(), "the cached verification must not outlive the admin");
+
+        clock.now = clock.now.plus(Duration.ofSeconds(1));
+        assertTrue(jwtService.verify(jwtService.issue(admin()).token()).isPresent(), "later logins are unaffected");
+    }
+
+    private static Admin admin() {
+        Admin admin = new Admin();
+        admin.setId(7);
+        admin.setUsername("operator");
+        return admin;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
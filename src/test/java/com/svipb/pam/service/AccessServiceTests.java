@@ -0,0 +1,60 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.TestUsers;
+import com.svipb.pam.dto.AccessVerdict;
+import com.svipb.pam.entity.OccupancyEntry;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.index.CredentialType;
+import com.svipb.pam.index.Direction;
+import com.svipb.pam.index.OccupancyCheckpointer;
+import com.svipb.pam.repository.OccupancyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccessServiceTests {
+
+    @Autowired
+    private AccessService accessService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OccupancyCheckpointer occupancyCheckpointer;
+
+    @Autowired
+    private OccupancyRepository occupancyRepository;
+
+    @Test
+    void directionalScansTrackOccupancyAndReachTheCheckpointTable() {
+        User user = TestUsers.user("occupant@pam.id", 940);
+        userService.addUser(user);
+
+        assertEquals(AccessVerdict.GRANTED, accessService.verify(CredentialType.RFID, 940, "vault", Direction.IN)
+                .orElseThrow().verdict());
+        assertEquals(AccessVerdict.PASSBACK_DENIED, accessService.verify(CredentialType.RFID, 940, "vault", Direction.IN)
+                .orElseThrow().verdict());
+        assertEquals(user.getName(), accessService.getOccupants("vault").get(0).name());
+
+        occupancyCheckpointer.checkpoint();
+        List<OccupancyEntry> rows = occupancyRepository.findAll();
+        assertEquals(1, rows.size());
+        assertEquals("vault", rows.get(0).getPort());
+        assertEquals(user.getId(), rows.get(0).getUserId());
+
+        assertTrue(accessService.verify(CredentialType.RFID, 940, "vault", Direction.OUT).orElseThrow().granted());
+        assertEquals(0, accessService.getZoneOccupancy("vault").orElseThrow().occupancy());
+        occupancyCheckpointer.checkpoint();
+        assertTrue(occupancyRepository.findAll().isEmpty());
+
+        userService.deleteUser(user.getId());
+    }
+}
@@ -0,0 +1,85 @@
+package com.svipb.pam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.svipb.pam.entity.Admin;
+import com.svipb.pam.repository.AdminRepository;
+import com.svipb.pam.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AdminServiceTests {
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clearAdmins() {
+        adminRepository.deleteAll();
+    }
+
+    @Test
+    void onlyTheFirstAdminCanBeAddedWithoutAToken() {
+        adminService.addFirstAdmin(admin("first"));
+
+        assertThrows(IllegalStateException.class, () -> adminService.addFirstAdmin(admin("second")));
+        assertEquals(1, adminRepository.count());
+    }
+
+    @Test
+    void deletingAnAdminRevokesTheirTokens() {
+        Admin admin = adminService.addFirstAdmin(admin("operator"));
+        String token = jwtService.issue(admin).token();
+        assertTrue(jwtService.verify(token).isPresent());
+
+        adminService.deleteAdmin(admin.getId());
+
+        assertTrue(jwtService.verify(token).isEmpty());
+    }
+
+    @Test
+    void passwordsAreStoredHashedAndNeverSerialized() throws Exception {
+        Admin admin = adminService.addFirstAdmin(admin("hashed"));
+
+        String stored = adminRepository.findById(admin.getId()).orElseThrow().getPassword();
+        assertTrue(stored.startsWith("$2"), "password should be a BCrypt hash");
+        assertTrue(adminService.authenticate("hashed", "secret").isPresent());
+        assertTrue(adminService.authenticate("hashed", stored).isEmpty());
+        assertTrue(adminService.authenticate("nobody", "secret").isEmpty());
+        assertFalse(objectMapper.writeValueAsString(admin).contains("password"));
+    }
+
+    @Test
+    void plaintextPasswordsFromBeforeHashingAreReplacedAtLogin() {
+        Admin legacy = adminRepository.save(admin("legacy"));
+
+        assertTrue(adminService.authenticate("legacy", "wrong").isEmpty());
+        assertTrue(adminService.authenticate("legacy", "secret").isPresent());
+        assertTrue(adminRepository.findById(legacy.getId()).orElseThrow().getPassword().startsWith("$2"));
+        assertTrue(adminService.authenticate("legacy", "secret").isPresent());
+    }
+
+    private static Admin admin(String username) {
+        Admin admin = new Admin();
+        admin.setName(username);
+        admin.setUsername(username);
+        admin.setEmail(username + "@pam.id");
+        admin.setPassword("secret");
+        return admin;
+    }
+}
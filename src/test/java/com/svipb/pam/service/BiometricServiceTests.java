@@ -0,0 +1,70 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.TestUsers;
+import com.svipb.pam.dto.BiometricMatch;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.index.BiometricIndex;
+import com.svipb.pam.index.CredentialType;
+import com.svipb.pam.repository.BiometricTemplateRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BiometricServiceTests {
+
+    @Autowired
+    private BiometricService biometricService;
+
+    @Autowired
+    private AccessService accessService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BiometricIndex biometricIndex;
+
+    @Autowired
+    private BiometricTemplateRepository templateRepository;
+
+    @Test
+    void enrolledTemplateIdentifiesItsUserUntilTheUserIsDeleted() {
+        User user = TestUsers.user("face@pam.id", 930);
+        userService.addUser(user);
+        Random random = new Random(3);
+        float[] face = new float[biometricIndex.dimension()];
+        for (int i = 0; i < face.length; i++) {
+            face[i] = (float) random.nextGaussian();
+        }
+
+        biometricService.enroll(user.getId(), biometricService.modality("face"), face);
+        float[] probe = face.clone();
+        probe[0] += 0.1f;
+        BiometricMatch match = accessService.identify(CredentialType.FACEID, probe, null, null).orElseThrow();
+        assertEquals(user.getId(), match.credential().userId());
+        assertTrue(match.similarity() > 0.99f);
+        assertTrue(match.granted());
+        assertTrue(accessService.identify(CredentialType.FINGERID, probe, null, null).isEmpty());
+
+        float[] stranger = new float[face.length];
+        for (int i = 0; i < stranger.length; i++) {
+            stranger[i] = (float) random.nextGaussian();
+        }
+        assertEquals(Optional.empty(), accessService.identify(CredentialType.FACEID, stranger, null, null));
+        assertThrows(IllegalArgumentException.class, () -> biometricService.enroll(user.getId(), CredentialType.FACEID, new float[3]));
+        assertThrows(ResourceNotFoundException.class, () -> biometricService.enroll(Integer.MAX_VALUE, CredentialType.FACEID, face));
+
+        userService.deleteUser(user.getId());
+        assertTrue(accessService.identify(CredentialType.FACEID, probe, null, null).isEmpty());
+        assertTrue(templateRepository.findByUserIdAndModality(user.getId(), "FACEID").isEmpty());
+    }
+}
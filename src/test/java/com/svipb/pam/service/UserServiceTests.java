@@ -0,0 +1,295 @@
+package com.svipb.pam.service;
+
+import com.svipb.pam.dto.BulkActionReport;
+import com.svipb.pam.dto.BulkImportReport;
+import com.svipb.pam.dto.BulkImportResult;
+import com.svipb.pam.dto.UserExportFormat;
+import com.svipb.pam.dto.UserPatch;
+import com.svipb.pam.dto.UserSelection;
+import com.svipb.pam.dto.UserSummary;
+import com.svipb.pam.entity.User;
+import com.svipb.pam.exception.ResourceNotFoundException;
+import com.svipb.pam.index.CredentialIndex;
+import com.svipb.pam.index.CredentialType;
+import com.svipb.pam.pagination.CursorPage;
+import com.svipb.pam.pagination.PagedResponse;
+import com.svipb.pam.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.svipb.pam.TestUsers.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CredentialIndex credentialIndex;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private VisitorPassPurger visitorPassPurger;
+
+    @BeforeEach
+    void clearUsers() {
+        userRepository.findAll().forEach(user -> userService.deleteUser(user.getId()));
+    }
+
+    @Test
+    void importUsersReportsDuplicatesAndIndexesNewRows() {
+        userService.addUser(user("existing@pam.id", 1));
+
+        BulkImportReport report = userService.importUsers(List.of(
+                user("a@pam.id", 10),
+                user("b@pam.id", 10),
+                user("existing@pam.id", 11),
+                user("not-an-email", 12),
+                user("c@pam.id", 13)));
+
+        assertEquals(5, report.total());
+        assertEquals(2, report.created());
+        assertEquals(BulkImportResult.Status.CREATED, report.rows().get(0).status());
+        assertEquals(BulkImportResult.Status.DUPLICATE, report.rows().get(1).status());
+        assertEquals(BulkImportResult.Status.DUPLICATE, report.rows().get(2).status());
+        assertEquals(BulkImportResult.Status.INVALID, report.rows().get(3).status());
+
+        int id = report.rows().get(4).id();
+        assertEquals(id, credentialIndex.lookup(CredentialType.RFID, 13).orElseThrow().userId());
+        assertEquals(3, userRepository.count());
+    }
+
+    @Test
+    void exportUsersWritesOneRowPerUser() throws Exception {
+        userService.addUser(user("a@pam.id", 1));
+        User quoted = user("b@pam.id", 2);
+        quoted.setName("Budi, \"B\"");
+        userService.addUser(quoted);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(2, userService.exportUsers(UserExportFormat.NDJSON, ndjson));
+        assertEquals(2, ndjson.toString(StandardCharsets.UTF_8).lines().count());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        userService.exportUsers(UserExportFormat.CSV, csv);
+        List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).contains("\"Budi, \"\"B\"\"\""));
+    }
+
+    @Test
+    void seekUsersByNameWalksEveryRowOnce() {
+        for (int i = 0; i < 7; i++) {
+            User user = user("u" + i + "@pam.id", i + 1);
+            user.setName(i % 2 == 0 ? "Sama" : "Nama " + i);
+            userService.addUser(user);
+        }
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserSummary> page = userService.seekUsersByName(cursor, 3, false);
+            page.getContent().forEach(user -> names.add(user.name()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(7, names.size());
+        assertEquals(List.of("Sama", "Sama", "Sama", "Sama", "Nama 5", "Nama 3", "Nama 1"), names);
+    }
+
+    @Test
+    void facetCountsFollowWritesAndBackStatusFilter() {
+        userService.addUser(user("a@pam.id", 1));
+        User visitor = user("b@pam.id", 2);
+        visitor.setStatus("Bukan Staff");
+        userService.addUser(visitor);
+
+        assertEquals(1L, userService.getUserFacets().status().get("bukan staff"));
+        PagedResponse<UserSummary> visitors = userService.filterStatus("bukan staff", PageRequest.of(0, 10));
+        assertEquals(1, visitors.getTotalElements());
+        assertEquals(visitor.getEmail(), visitors.getContent().get(0).email());
+
+        visitor.setStatus("staff");
+        userService.updateUser(visitor);
+        assertEquals(2L, userService.getUserFacets().status().get("staff"));
+        assertNull(userService.getUserFacets().status().get("bukan staff"));
+        assertTrue(userService.filterStatus("bukan staff", PageRequest.of(0, 10)).getContent().isEmpty());
+    }
+
+    @Test
+    void cachedListingIsInvalidatedByJdbcBulkImport() {
+        userService.addUser(user("a@pam.id", 1));
+        assertEquals(1, userService.getAllUsersWithPagination(0, 10).getTotalElements());
+
+        long hits = cacheService.getStatistics().queryCacheHits();
+        assertEquals(1, userService.getAllUsersWithPagination(0, 10).getTotalElements());
+        assertTrue(cacheService.getStatistics().queryCacheHits() > hits);
+
+        userService.importUsers(List.of(user("b@pam.id", 2)));
+        assertEquals(2, userService.getAllUsersWithPagination(0, 10).getTotalElements());
+    }
+
+    @Test
+    void optimisticWritesMapConstraintNamesToDuplicateKeys() {
+        userService.addUser(user("first@pam.id", 20));
+        User second = user("second@pam.id", 21);
+        userService.addUser(second);
+
+        User sameRfid = user("third@pam.id", 22);
+        sameRfid.setRfid(20);
+        assertEquals("RFID 20 already exists",
+                assertThrows(DuplicateKeyException.class, () -> userService.addUser(sameRfid)).getMessage());
+
+        second.setEmail("first@pam.id");
+        assertEquals("Email already exists",
+                assertThrows(DuplicateKeyException.class, () -> userService.updateUser(second)).getMessage());
+
+        User missing = user("ghost@pam.id", 30);
+        missing.setId(Integer.MAX_VALUE);
+        assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(missing));
+
+        second.setEmail("second@pam.id");
+        second.setName("Renamed");
+        userService.updateUser(second);
+        assertEquals("Renamed", userRepository.findById(second.getId()).orElseThrow().getName());
+        assertEquals("Renamed", credentialIndex.lookup(CredentialType.RFID, 21).orElseThrow().name());
+    }
+
+    @Test
+    void patchWritesSuppliedFieldsAndRejectsStaleVersions() {
+        User user = user("patch@pam.id", 40);
+        userService.addUser(user);
+        long version = userRepository.findById(user.getId()).orElseThrow().getVersion();
+
+        User patched = userService.patchUser(user.getId(),
+                new UserPatch("Patched", null, "visitor", null, null, 41, null, null, null, null, version));
+        assertEquals("Patched", patched.getName());
+        assertEquals("patch@pam.id", patched.getEmail());
+        assertEquals(41, patched.getRfid());
+        assertEquals(40, patched.getFaceid());
+        assertEquals(version + 1, patched.getVersion());
+        assertEquals("Patched", credentialIndex.lookup(CredentialType.RFID, 41).orElseThrow().name());
+        assertTrue(credentialIndex.lookup(CredentialType.RFID, 40).isEmpty());
+
+        UserPatch stale = new UserPatch("Stale", null, null, null, null, null, null, null, null, null, version);
+        assertThrows(OptimisticLockingFailureException.class, () -> userService.patchUser(user.getId(), stale));
+        assertThrows(ResourceNotFoundException.class, () -> userService.patchUser(Integer.MAX_VALUE, stale));
+        assertThrows(IllegalArgumentException.class, () -> userService.patchUser(user.getId(),
+                new UserPatch(null, "bukan-email", null, null, null, null, null, null, null, null, version + 1)));
+        assertEquals("Patched", userRepository.findById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void patchRejectsAValidityWindowInvertedAgainstTheStoredEnd() {
+        Instant validFrom = Instant.now().plusSeconds(3_600);
+        User user = user("window@pam.id", 45);
+        user.setValidFrom(validFrom);
+        user.setValidUntil(validFrom.plusSeconds(3_600));
+        userService.addUser(user);
+        long version = userRepository.findById(user.getId()).orElseThrow().getVersion();
+
+        IllegalArgumentException rejected = assertThrows(IllegalArgumentException.class, () -> userService.patchUser(
+                user.getId(), new UserPatch(null, null, null, null, null, null, null, null, null,
+                        validFrom.minusSeconds(60), version)));
+        assertEquals("Akhir masa berlaku harus setelah awal masa berlaku", rejected.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> userService.patchUser(user.getId(), new UserPatch(
+                null, null, null, null, null, null, null, null, validFrom, validFrom.minusSeconds(60), version)));
+        assertEquals(validFrom.plusSeconds(3_600).getEpochSecond(),
+                userRepository.findById(user.getId()).orElseThrow().getValidUntil().getEpochSecond());
+
+        User extended = userService.patchUser(user.getId(), new UserPatch(null, null, null, null, null, null, null, null,
+                null, validFrom.plusSeconds(7_200), version));
+        assertEquals(version + 1, extended.getVersion());
+    }
+
+    @Test
+    void bulkActionsRunPerSelectionAndUpdateIndexes() {
+        User a = user("a@pam.id", 50);
+        User b = user("b@pam.id", 51);
+        User c = user("c@pam.id", 52);
+        c.setStatus("visitor");
+        List.of(a, b, c).forEach(userService::addUser);
+
+        BulkActionReport deactivated = userService.setDeactivated(UserSelection.ofStatus("STAFF"), true);
+        assertEquals(new BulkActionReport(2, 2), deactivated);
+        assertTrue(credentialIndex.lookup(CredentialType.RFID, 50).isEmpty());
+        assertTrue(credentialIndex.lookup(CredentialType.FACEID, 51).isEmpty());
+        assertEquals(c.getId(), credentialIndex.lookup(CredentialType.RFID, 52).orElseThrow().userId());
+        assertTrue(userRepository.findById(a.getId()).orElseThrow().isDeactivated());
+
+        BulkActionReport reactivated = userService.setDeactivated(UserSelection.ofIds(List.of(a.getId(), c.getId())), false);
+        assertEquals(new BulkActionReport(2, 1), reactivated);
+        assertEquals(a.getId(), credentialIndex.lookup(CredentialType.RFID, 50).orElseThrow().userId());
+
+        BulkActionReport deleted = userService.deleteUsers(UserSelection.ofStatus("staff"));
+        assertEquals(new BulkActionReport(2, 2), deleted);
+        assertEquals(List.of(c.getId()), userRepository.findAll().stream().map(User::getId).toList());
+        assertTrue(credentialIndex.lookup(CredentialType.RFID, 50).isEmpty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.deleteUsers(new UserSelection(List.of(c.getId()), "visitor")));
+    }
+
+    @Test
+    void lapsedVisitorPassesLeaveTheIndexAndOnlyVisitorsArePurged() {
+        Instant now = Instant.now();
+        User visitor = user("visitor@pam.id", 60);
+        visitor.setStatus("bukan staff");
+        visitor.setValidUntil(now.minusSeconds(60));
+        User contractor = user("contractor@pam.id", 61);
+        contractor.setValidUntil(now.minusSeconds(60));
+        User guest = user("guest@pam.id", 62);
+        guest.setStatus("bukan staff");
+        guest.setValidUntil(now.plusSeconds(3600));
+        List.of(visitor, contractor, guest).forEach(userService::addUser);
+
+        assertTrue(credentialIndex.lookup(CredentialType.RFID, 60).isEmpty());
+        assertTrue(credentialIndex.lookup(CredentialType.RFID, 61).isEmpty());
+        assertTrue(credentialIndex.lookup(CredentialType.RFID, 62).orElseThrow().validAt(now));
+
+        assertEquals(1, visitorPassPurger.purge());
+        assertEquals(List.of(contractor.getId(), guest.getId()),
+                userRepository.findAll().stream().map(User::getId).sorted().toList());
+        assertEquals(0, visitorPassPurger.purge());
+    }
+
+    @Test
+    void importedVisitorPassesKeepTheirValidityWindow() {
+        Instant now = Instant.now();
+        User lapsed = user("lapsed@pam.id", 63);
+        lapsed.setStatus("bukan staff");
+        lapsed.setValidUntil(now.minusSeconds(60));
+        User current = user("current@pam.id", 64);
+        current.setStatus("bukan staff");
+        current.setValidFrom(now.minusSeconds(60));
+        current.setValidUntil(now.plusSeconds(3600));
+
+        assertEquals(2, userService.importUsers(List.of(lapsed, current)).created());
+
+        assertTrue(credentialIndex.lookup(CredentialType.RFID, 63).isEmpty());
+        assertFalse(credentialIndex.lookup(CredentialType.RFID, 64).orElseThrow().validAt(now.plusSeconds(7200)));
+        assertNotNull(userRepository.findByRfid(64).orElseThrow().getValidFrom());
+        assertEquals(1, visitorPassPurger.purge());
+        assertTrue(userRepository.findByRfid(63).isEmpty());
+    }
+}